@@ -0,0 +1,94 @@
+package pageRankAlgorithm;
+
+public class ArrayKernels {
+
+	/*
+	 * This method returns the largest absolute difference between the two arrays.
+	 */
+	public static double maxDifference(double[] a, double[] b) {
+		double max = 0;
+		for (int i = 0; i < a.length; i++) max = Math.max(max, Math.abs(a[i] - b[i]));
+		return max;
+	}
+
+	/*
+	 * This method returns the sum of the array. The JIT will not reorder additions of doubles, so
+	 * it keeps four separate sums that add neighbouring elements at the same time and are only
+	 * added together at the end. This changes the order of the additions, so the sum can differ
+	 * in its last bits from adding the elements one after another.
+	 */
+	public static double sum(double[] a) {
+		double sum0 = 0, sum1 = 0, sum2 = 0, sum3 = 0;
+		int length = a.length, i = 0;
+		for (; i + 3 < length; i += 4) {
+			sum0 += a[i];
+			sum1 += a[i + 1];
+			sum2 += a[i + 2];
+			sum3 += a[i + 3];
+		}
+		for (; i < length; i++) sum0 += a[i];
+		return (sum0 + sum1) + (sum2 + sum3);
+	}
+
+	/*
+	 * This method returns the sum of the array at the given indices, such as the values of the
+	 * sinks, with four separate sums like sum.
+	 */
+	public static double sumAt(double[] a, int[] indices) {
+		double sum0 = 0, sum1 = 0, sum2 = 0, sum3 = 0;
+		int length = indices.length, i = 0;
+		for (; i + 3 < length; i += 4) {
+			sum0 += a[indices[i]];
+			sum1 += a[indices[i + 1]];
+			sum2 += a[indices[i + 2]];
+			sum3 += a[indices[i + 3]];
+		}
+		for (; i < length; i++) sum0 += a[indices[i]];
+		return (sum0 + sum1) + (sum2 + sum3);
+	}
+
+	/*
+	 * This method sets every element of the array to the base value, such as the teleport.
+	 */
+	public static void fill(double[] a, double base) {
+		for (int i = 0; i < a.length; i++) a[i] = base;
+	}
+
+	/*
+	 * This method multiplies the two arrays element by element into the result, such as each
+	 * node's damped share per edge times its value. Like the other element by element loops it
+	 * is a plain counted loop with no branches, the form the JIT compiles into SIMD instructions,
+	 * since unrolling it by hand stops the JIT from doing so.
+	 */
+	public static void multiply(double[] a, double[] b, double[] result) {
+		for (int i = 0; i < result.length; i++) result[i] = a[i]*b[i];
+	}
+
+	/*
+	 * This method multiplies every element of the array by the constant.
+	 */
+	public static void scale(double[] a, double c) {
+		for (int i = 0; i < a.length; i++) a[i] *= c;
+	}
+
+	/*
+	 * This method multiplies every element of the array by the constant, and returns the largest
+	 * absolute difference between the result and the prior array.
+	 */
+	public static double scaleAndMaxDifference(double[] a, double c, double[] prior) {
+		double max = 0;
+		for (int i = 0; i < a.length; i++) {
+			a[i] *= c;
+			max = Math.max(max, Math.abs(a[i] - prior[i]));
+		} return max;
+	}
+
+	/*
+	 * This method normalizes every element of the array over the variance, rounding it up to a
+	 * multiple of the variance.
+	 */
+	public static void normalize(double[] a, double variance) {
+		for (int i = 0; i < a.length; i++) a[i] = Math.ceil(a[i]/variance)*variance;
+	}
+
+}
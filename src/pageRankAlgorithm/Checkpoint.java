@@ -0,0 +1,168 @@
+package pageRankAlgorithm;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class Checkpoint {
+
+	// Marks the start of a checkpoint file ("PRCP")
+	private static final int MAGIC = 0x50524350;
+	// The size of the buffer the values are written through
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private File file;
+	private int interval;
+	private String[] names;
+	private ExecutorService writer;
+	private Future<?> pending;
+
+	/*
+	 * The Checkpoint class takes in a file and an interval, and saves the future values of a
+	 * network to the file every interval iterations. The solver thread only copies the values;
+	 * the file is written by a single background thread through a FileChannel, first to a
+	 * temporary file which is then moved over the old checkpoint, so a killed JVM always leaves
+	 * a complete checkpoint behind. If the previous checkpoint is still being written the new
+	 * one is skipped rather than holding up the solver.
+	 */
+	public Checkpoint(File file, int interval) {
+		this.file = file;
+		this.interval = interval;
+		this.writer = Executors.newSingleThreadExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "checkpoint-writer");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/*
+	 * Gets the checkpoint file.
+	 */
+	public File getFile() {
+		return this.file;
+	}
+
+	/*
+	 * This method saves the network's future values if a checkpoint is due at the given iteration.
+	 */
+	public void update(int iteration, List<AtomicNode> network) {
+		if (interval <= 0 || iteration % interval != 0) return;
+		if (pending != null && !pending.isDone()) return;
+		if (names == null) {
+			names = new String[network.size()];
+			for (int i = 0; i < names.length; i++) names[i] = network.get(i).getName();
+		}
+		final double[] values = new double[network.size()];
+		for (int i = 0; i < values.length; i++) values[i] = network.get(i).getAtomicFValue();
+		final String[] savedNames = names;
+		pending = writer.submit(() -> {
+			write(iteration, savedNames, values);
+			return null;
+		});
+	}
+
+	/*
+	 * This method waits for the last checkpoint to be written and stops the background thread.
+	 * A checkpoint that failed to write is only reported, since the caller has the values it
+	 * was saving and a lost checkpoint should not throw them away.
+	 */
+	public void close() throws InterruptedException {
+		try {
+			if (pending != null) pending.get();
+		} catch (ExecutionException ex) {
+			System.out.println("Checkpoint failed: " + ex.getCause());
+		} finally {
+			writer.shutdown();
+		}
+	}
+
+	/*
+	 * This method deletes the checkpoint file, and any partly written one, once the last
+	 * checkpoint has been written, so a finished run is not resumed the next time.
+	 */
+	public void delete() throws Exception {
+		close();
+		new File(file.getPath() + ".tmp").delete();
+		file.delete();
+	}
+
+	/*
+	 * This method writes a checkpoint: the magic number, the iteration, the number of nodes and
+	 * their values, and then the node names. The values are written through a buffer of a fixed
+	 * size, a chunk at a time, so a large network is not copied into one buffer as big as itself.
+	 */
+	public void write(int iteration, String[] names, double[] values) throws Exception {
+		File temp = new File(file.getPath() + ".tmp");
+		// The channel is closed even if a write fails, so a failed checkpoint does not leak it
+		try (FileChannel channel = FileChannel.open(temp.toPath(), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+			buffer.putInt(MAGIC).putInt(iteration).putInt(values.length);
+			int i = 0;
+			do {
+				// Fill the rest of the buffer with values and write it out
+				int count = Math.min(values.length - i, buffer.remaining() / 8);
+				buffer.asDoubleBuffer().put(values, i, count);
+				buffer.position(buffer.position() + 8 * count);
+				i += count;
+				buffer.flip();
+				while (buffer.hasRemaining()) channel.write(buffer);
+				buffer.clear();
+			} while (i < values.length);
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+			for (String name : names) out.writeUTF(name);
+			out.flush();
+			channel.force(false);
+		}
+		Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/*
+	 * This method reads a checkpoint file into a map from node names to their saved values,
+	 * and returns the iteration it was saved at.
+	 */
+	public static int read(File file, Map<String, Double> values) throws Exception {
+		DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+		try {
+			if (in.readInt() != MAGIC) throw new IllegalArgumentException("Not a checkpoint file: " + file);
+			int iteration = in.readInt();
+			double[] saved = new double[in.readInt()];
+			for (int i = 0; i < saved.length; i++) saved[i] = in.readDouble();
+			for (int i = 0; i < saved.length; i++) values.put(in.readUTF(), saved[i]);
+			return iteration;
+		} finally {
+			in.close();
+		}
+	}
+
+	/*
+	 * This method restores the future values of the network from a checkpoint file, matching the
+	 * nodes by name, and returns the iteration it was saved at. A node missing from the checkpoint
+	 * keeps its current future value.
+	 */
+	public static int restore(File file, List<AtomicNode> network) throws Exception {
+		Map<String, Double> values = new HashMap<String, Double>();
+		int iteration = read(file, values);
+		for (AtomicNode node : network) {
+			Double value = values.get(node.getName());
+			if (value != null) node.setAtomicFValue(value);
+		} return iteration;
+	}
+
+}
@@ -0,0 +1,551 @@
+package pageRankAlgorithm;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class CompactNetwork {
+
+	// How buildNetwork treats a line that repeats an edge: keep it, drop it, or count it on the first edge
+	public static final int KEEP_REPEATS = 0;
+	public static final int DROP_REPEATS = 1;
+	public static final int COUNT_REPEATS = 2;
+
+	private String[] names;
+	private int[] offsets;
+	private int[] targets;
+	private double[] weights;
+	private int[] multiplicities;
+	private boolean undirected;
+	private int[] degrees;
+
+	/*
+	 * The CompactNetwork class stores a network as flat primitive arrays instead of
+	 * a list of nodes. The outgoing edges of node i are stored in the targets array
+	 * from offsets[i] up to (but not including) offsets[i + 1]. Sinks are left without
+	 * edges, so the solvers redistribute their value evenly over the whole network,
+	 * which gives the same result as the fixNetworkSinks method.
+	 */
+	public CompactNetwork(String[] names, int[] offsets, int[] targets) {
+		this(names, offsets, targets, null);
+	}
+
+	/*
+	 * A weighted compact network also stores the weight of each edge in the weights array,
+	 * at the same index as its target. An unweighted network leaves the weights null. Only
+	 * pageRankWeighted and the distributed workers read the weights, so the other solvers call
+	 * requireUnweighted rather than returning the unweighted ranks.
+	 */
+	public CompactNetwork(String[] names, int[] offsets, int[] targets, double[] weights) {
+		this(names, offsets, targets, weights, false);
+	}
+
+	/*
+	 * An undirected compact network stores each edge only once, at the lower of its two nodes,
+	 * and the edge is followed in both directions. The degree of each node then counts the edges
+	 * stored at the other end as well, so it is kept in its own array. Only pageRankWeighted
+	 * follows the stored edges both ways, so it is the only solver that saves the memory. Any
+	 * list of incoming edges would hold every undirected edge twice, so the other solvers call
+	 * requireDirected, and a caller that wants to run them anyway converts with toDirected.
+	 */
+	public CompactNetwork(String[] names, int[] offsets, int[] targets, double[] weights, boolean undirected) {
+		this(names, offsets, targets, weights, null, undirected);
+	}
+
+	/*
+	 * A compact network with repeated edges counted stores how many times each edge appeared in
+	 * the multiplicities array, at the same index as its target, which takes an int per edge
+	 * instead of the double a weight would. A network with weights adds repeated weights up
+	 * instead, so at most one of the two arrays is set, and both are null if every edge is plain.
+	 */
+	public CompactNetwork(String[] names, int[] offsets, int[] targets, double[] weights, int[] multiplicities,
+			boolean undirected) {
+		this.names = names;
+		this.offsets = offsets;
+		this.targets = targets;
+		this.weights = weights;
+		this.multiplicities = multiplicities;
+		this.undirected = undirected;
+		if (undirected) {
+			this.degrees = new int[names.length];
+			for (int i = 0; i < names.length; i++) {
+				for (int j = offsets[i]; j < offsets[i + 1]; j++) {
+					this.degrees[i]++;
+					// A self loop is only followed once
+					if (targets[j] != i) this.degrees[targets[j]]++;
+				}
+			}
+		}
+	}
+
+	/*
+	 * This method takes in a filename and builds the compact network from it. The nodes
+	 * are numbered in the order they first appear in the file, which is the same order
+	 * that PageRank.buildNetwork uses.
+	 */
+	public static CompactNetwork buildNetwork(String fileName) throws Exception {
+		return buildNetwork(fileName, -1);
+	}
+
+	/*
+	 * This method takes in a filename and builds the compact network from it, using the
+	 * numeric field in the given column of each line as the weight of its edge. Column 3 is
+	 * node2Value, so the to node's value weights the edges into it. A column of -1 builds
+	 * an unweighted network. Column 1 is node1Value, which would weight all of a node's
+	 * outgoing edges by the node's own value, and a node's value is split in proportion to
+	 * the weights of its edges, so it would give the same ranks as no weights at all. Columns 0
+	 * and 2 hold the names, and there is no column past 3, so any column other than 3 or -1 is
+	 * rejected with an IllegalArgumentException before the file is read, as is a line whose
+	 * weight is missing or not a number. Node weights, such as a teleport bias taken from
+	 * node1Value, are not supported.
+	 */
+	public static CompactNetwork buildNetwork(String fileName, int weightColumn) throws Exception {
+		return buildNetwork(fileName, weightColumn, false);
+	}
+
+	/*
+	 * This method takes in a filename and builds the compact network from it, with the edge
+	 * weights from the given column. If undirected is true each line is an undirected edge, so
+	 * the file only needs to list each pair of connected nodes once.
+	 */
+	public static CompactNetwork buildNetwork(String fileName, int weightColumn, boolean undirected) throws Exception {
+		return buildNetwork(fileName, weightColumn, undirected, KEEP_REPEATS);
+	}
+
+	/*
+	 * This method takes in a filename and builds the compact network from it, treating lines that
+	 * repeat an edge as given by repeats. DROP_REPEATS keeps only the first of them, and
+	 * COUNT_REPEATS merges them into one edge that counts as many times as it appeared (or weighs
+	 * the sum of their weights), which gives the same pagerank values as the repeated edges. The
+	 * repeats are merged in the arrays the loader has just filled, before the network is returned.
+	 * They cannot be merged while the lines are read without a set of targets for every node, and
+	 * a node's edges are only all together once they have been bucketed.
+	 */
+	public static CompactNetwork buildNetwork(String fileName, int weightColumn, boolean undirected, int repeats) throws Exception {
+		if (weightColumn == 1) throw new IllegalArgumentException("Weighting by node1Value gives the unweighted ranks, use column 3 or -1");
+		if (weightColumn != 3 && weightColumn != -1) {
+			throw new IllegalArgumentException("Edge weights can only come from column 3 (node2Value), or -1 for none: " + weightColumn);
+		}
+		if (repeats < KEEP_REPEATS || repeats > COUNT_REPEATS) throw new IllegalArgumentException("Unknown repeats mode: " + repeats);
+		// A BufferedReader to read in the .csv file
+		BufferedReader br = new BufferedReader(new FileReader(fileName));
+
+		String line;
+		Map<String, Integer> indices = new HashMap<String, Integer>();
+		List<String> names = new ArrayList<String>();
+		int[] from = new int[16];
+		int[] to = new int[16];
+		double[] weights = weightColumn < 0 ? null : new double[16];
+		int edges = 0;
+
+		// For each line in the .csv file, record an edge from the first node to the second
+		while ((line = br.readLine()) != null) {
+			String[] lineItems = line.split(",");
+			if (edges == from.length) {
+				from = Arrays.copyOf(from, edges * 2);
+				to = Arrays.copyOf(to, edges * 2);
+				if (weights != null) weights = Arrays.copyOf(weights, edges * 2);
+			}
+			from[edges] = indexOf(lineItems[0], indices, names);
+			to[edges] = indexOf(lineItems[2], indices, names);
+			// Store an undirected edge at the lower of its two nodes
+			if (undirected && to[edges] < from[edges]) {
+				int temp = from[edges];
+				from[edges] = to[edges];
+				to[edges] = temp;
+			}
+			if (weights != null) {
+				try {
+					weights[edges] = Double.parseDouble(lineItems[weightColumn].trim());
+				} catch (RuntimeException ex) {
+					// A short line has no weight column, and a non-numeric one has no weight
+					br.close();
+					throw new IllegalArgumentException("Missing or bad edge weight: " + line);
+				}
+				if (!(weights[edges] >= 0)) {
+					br.close();
+					throw new IllegalArgumentException("Edge weights must not be negative: " + line);
+				}
+			}
+			edges++;
+		} br.close();
+
+		CompactNetwork network = fromEdges(names.toArray(new String[names.size()]), from, to, weights, edges);
+		// The loader's edge arrays are no longer needed, so they can be collected while the repeats are merged
+		from = to = null;
+		weights = null;
+		if (repeats != KEEP_REPEATS) network = network.collapse(repeats == COUNT_REPEATS);
+		if (!undirected) return network;
+		return new CompactNetwork(network.names, network.offsets, network.targets, network.weights, network.multiplicities, true);
+	}
+
+	/*
+	 * This method returns the index of the named node, adding it to the names if it is new.
+	 */
+	public static int indexOf(String name, Map<String, Integer> indices, List<String> names) {
+		Integer index = indices.get(name);
+		if (index == null) {
+			index = names.size();
+			indices.put(name, index);
+			names.add(name);
+		} return index;
+	}
+
+	/*
+	 * This method builds a compact network from the first count entries of the from and to
+	 * edge arrays. The edges are bucketed by their from node with a counting sort, so each
+	 * node keeps its edges in the order they were given.
+	 */
+	public static CompactNetwork fromEdges(String[] names, int[] from, int[] to, int count) {
+		return fromEdges(names, from, to, null, count);
+	}
+
+	/*
+	 * This method builds a compact network from the first count entries of the from, to and
+	 * weight edge arrays. If the weights are null the network is unweighted.
+	 */
+	public static CompactNetwork fromEdges(String[] names, int[] from, int[] to, double[] weights, int count) {
+		return fromEdges(names, from, to, weights, null, count);
+	}
+
+	/*
+	 * This method builds a compact network from the first count entries of the edge arrays,
+	 * including how many times each edge counts if the multiplicities are not null.
+	 */
+	public static CompactNetwork fromEdges(String[] names, int[] from, int[] to, double[] weights, int[] multiplicities,
+			int count) {
+		int[] offsets = new int[names.length + 1];
+		for (int i = 0; i < count; i++) offsets[from[i] + 1]++;
+		for (int i = 0; i < names.length; i++) offsets[i + 1] += offsets[i];
+		int[] position = Arrays.copyOf(offsets, names.length);
+		int[] targets = new int[count];
+		double[] edgeWeights = weights == null ? null : new double[count];
+		int[] edgeMultiplicities = multiplicities == null ? null : new int[count];
+		for (int i = 0; i < count; i++) {
+			int j = position[from[i]]++;
+			targets[j] = to[i];
+			if (edgeWeights != null) edgeWeights[j] = weights[i];
+			if (edgeMultiplicities != null) edgeMultiplicities[j] = multiplicities[i];
+		}
+		return new CompactNetwork(names, offsets, targets, edgeWeights, edgeMultiplicities, false);
+	}
+
+	/*
+	 * This method builds a compact network from a list of nodes, keeping the order of the list.
+	 */
+	public static CompactNetwork fromNetwork(List<Node> network) {
+		Map<String, Integer> indices = new HashMap<String, Integer>();
+		String[] names = new String[network.size()];
+		int edges = 0;
+		for (int i = 0; i < names.length; i++) {
+			names[i] = network.get(i).getName();
+			indices.put(names[i], i);
+			edges += network.get(i).getEdges().size();
+		}
+		int[] offsets = new int[names.length + 1];
+		int[] targets = new int[edges];
+		for (int i = 0; i < names.length; i++) {
+			offsets[i + 1] = offsets[i];
+			for (Node e : network.get(i).getEdges()) targets[offsets[i + 1]++] = indices.get(e.getName());
+		}
+		return new CompactNetwork(names, offsets, targets);
+	}
+
+	/*
+	 * This method returns a new compact network with every edge reversed, so the edges
+	 * stored for node i are its incoming edges. An undirected network has no direction to
+	 * reverse, so it throws an IllegalArgumentException.
+	 */
+	public CompactNetwork reverse() {
+		requireDirected("Reversing");
+		int edges = getEdgeCount();
+		int[] from = new int[edges];
+		for (int i = 0; i < names.length; i++) {
+			for (int j = offsets[i]; j < offsets[i + 1]; j++) from[j] = i;
+		}
+		return fromEdges(names, targets, from, weights, multiplicities, edges);
+	}
+
+	/*
+	 * This method returns a new compact network where each node points to each of its targets
+	 * only once, with its edges sorted by target. Repeated lines in a .csv file otherwise give
+	 * repeated edges, which are traversed again every iteration. If keepMultiplicity is true the
+	 * repeated edges are merged into one edge that counts as many times as it appeared (or weighs
+	 * the sum of their weights), which gives the same pagerank values as the repeated edges. If it
+	 * is false the repeats are dropped, and a weighted edge keeps its first weight. The network
+	 * keeps its own edges, so a network that is only needed collapsed should be loaded with
+	 * buildNetwork's repeats instead, which merges them without a copy of the edges.
+	 */
+	public CompactNetwork collapseEdges(boolean keepMultiplicity) {
+		return new CompactNetwork(names, offsets.clone(), targets.clone(), weights == null ? null : weights.clone(),
+				multiplicities == null ? null : multiplicities.clone(), undirected).collapse(keepMultiplicity);
+	}
+
+	/*
+	 * This method collapses the repeated edges in this network's own arrays, so it must only be
+	 * called on a network nothing else holds. Each node's edges are sorted in place and the first
+	 * of each run of equal targets is moved down to the next free index. An unweighted network
+	 * sorts its targets directly. A weighted or counted one sorts each node's edges as
+	 * target << 32 | position in a buffer the size of the largest degree, so an edge can find its
+	 * weight or count again. The multiplicities are only created once some target repeats, so an
+	 * unweighted network without repeats stays unweighted.
+	 */
+	private CompactNetwork collapse(boolean keepMultiplicity) {
+		// Dropped repeats count once, so any counts from an earlier collapse no longer apply
+		if (!keepMultiplicity) multiplicities = null;
+		boolean payload = weights != null || multiplicities != null;
+		int longest = 0;
+		if (payload) for (int i = 0; i < names.length; i++) longest = Math.max(longest, offsets[i + 1] - offsets[i]);
+		long[] keys = payload ? new long[longest] : null;
+		double[] nodeWeights = weights == null ? null : new double[longest];
+		int[] nodeCounts = multiplicities == null ? null : new int[longest];
+
+		int count = 0, start = 0;
+		for (int i = 0; i < names.length; i++) {
+			int end = offsets[i + 1], first = count;
+			if (payload) {
+				for (int j = start; j < end; j++) {
+					keys[j - start] = ((long) targets[j] << 32) | (j - start);
+					if (nodeWeights != null) nodeWeights[j - start] = weights[j];
+					if (nodeCounts != null) nodeCounts[j - start] = multiplicities[j];
+				}
+				Arrays.sort(keys, 0, end - start);
+			} else Arrays.sort(targets, start, end);
+
+			// Keep the first edge of each run of equal targets, adding up the run if needed
+			for (int j = start; j < end; j++) {
+				int k = payload ? (int) keys[j - start] : 0;
+				int target = payload ? (int) (keys[j - start] >>> 32) : targets[j];
+				int times = nodeCounts == null ? 1 : nodeCounts[k];
+				if (count > first && targets[count - 1] == target) {
+					if (!keepMultiplicity) continue;
+					if (weights != null) weights[count - 1] += nodeWeights[k];
+					else {
+						if (multiplicities == null) {
+							multiplicities = new int[targets.length];
+							Arrays.fill(multiplicities, 0, count, 1);
+						}
+						multiplicities[count - 1] += times;
+					}
+					continue;
+				}
+				targets[count] = target;
+				if (weights != null) weights[count] = nodeWeights[k];
+				if (multiplicities != null) multiplicities[count] = times;
+				count++;
+			}
+			offsets[i + 1] = count;
+			start = end;
+		}
+
+		if (count < targets.length) {
+			targets = Arrays.copyOf(targets, count);
+			if (weights != null) weights = Arrays.copyOf(weights, count);
+			if (multiplicities != null) multiplicities = Arrays.copyOf(multiplicities, count);
+		}
+		return new CompactNetwork(names, offsets, targets, weights, multiplicities, undirected);
+	}
+
+	/*
+	 * This method returns the directed form of the network, which has an edge in both directions
+	 * for every undirected edge (and a single edge for a self loop). A directed network is
+	 * returned as it is.
+	 */
+	public CompactNetwork toDirected() {
+		if (!undirected) return this;
+		int edges = 0;
+		for (int i = 0; i < names.length; i++) edges += degrees[i];
+		int[] from = new int[edges];
+		int[] to = new int[edges];
+		double[] edgeWeights = weights == null ? null : new double[edges];
+		int[] edgeMultiplicities = multiplicities == null ? null : new int[edges];
+		int count = 0;
+		for (int i = 0; i < names.length; i++) {
+			for (int j = offsets[i]; j < offsets[i + 1]; j++) {
+				from[count] = i;
+				to[count] = targets[j];
+				if (edgeWeights != null) edgeWeights[count] = weights[j];
+				if (edgeMultiplicities != null) edgeMultiplicities[count] = multiplicities[j];
+				count++;
+				if (targets[j] == i) continue;
+				from[count] = targets[j];
+				to[count] = i;
+				if (edgeWeights != null) edgeWeights[count] = weights[j];
+				if (edgeMultiplicities != null) edgeMultiplicities[count] = multiplicities[j];
+				count++;
+			}
+		}
+		return fromEdges(names, from, to, edgeWeights, edgeMultiplicities, count);
+	}
+
+	/*
+	 * This method throws an IllegalArgumentException if the network is undirected, for the
+	 * algorithms that only follow the stored edges from the node they are stored at.
+	 */
+	public void requireDirected(String algorithm) {
+		if (undirected) throw new IllegalArgumentException(algorithm + " needs a directed network, use toDirected first");
+	}
+
+	/*
+	 * This method throws an IllegalArgumentException if the network has edge weights or counted
+	 * repeats, for the algorithms that split a node's value evenly over its stored edges and
+	 * would otherwise return the unweighted ranks without saying so.
+	 */
+	public void requireUnweighted(String algorithm) {
+		if (weights != null || multiplicities != null) {
+			throw new IllegalArgumentException(algorithm + " needs an unweighted network, use pageRankWeighted instead");
+		}
+	}
+
+	/*
+	 * This method finds the strongly connected components of the network with Tarjan's
+	 * algorithm, using arrays as the stacks instead of recursion so a long path cannot overflow
+	 * the call stack. It returns the component of each node. The components are numbered in
+	 * topological order, so every edge between two components goes from a lower number to a
+	 * higher one.
+	 */
+	public int[] findComponents() {
+		CompactNetwork directed = toDirected();
+		int size = names.length;
+		int[] index = new int[size];
+		int[] low = new int[size];
+		int[] component = new int[size];
+		Arrays.fill(index, -1);
+		// The nodes not yet assigned to a component, and the path of nodes being searched with their next edges
+		int[] stack = new int[size];
+		boolean[] onStack = new boolean[size];
+		int[] path = new int[size];
+		int[] next = new int[size];
+		int stackSize = 0, pathSize = 0, counter = 0, components = 0;
+
+		for (int start = 0; start < size; start++) {
+			if (index[start] != -1) continue;
+			index[start] = low[start] = counter++;
+			next[start] = directed.offsets[start];
+			stack[stackSize++] = start;
+			onStack[start] = true;
+			path[pathSize++] = start;
+			while (pathSize > 0) {
+				int node = path[pathSize - 1];
+				if (next[node] < directed.offsets[node + 1]) {
+					// Follow the node's next edge, searching the target if it has not been reached yet
+					int target = directed.targets[next[node]++];
+					if (index[target] == -1) {
+						index[target] = low[target] = counter++;
+						next[target] = directed.offsets[target];
+						stack[stackSize++] = target;
+						onStack[target] = true;
+						path[pathSize++] = target;
+					} else if (onStack[target]) low[node] = Math.min(low[node], index[target]);
+				} else {
+					// The node's edges are done, so pass its low link back and close its component if it is the root
+					pathSize--;
+					if (pathSize > 0) low[path[pathSize - 1]] = Math.min(low[path[pathSize - 1]], low[node]);
+					if (low[node] == index[node]) {
+						int member;
+						do {
+							member = stack[--stackSize];
+							onStack[member] = false;
+							component[member] = components;
+						} while (member != node);
+						components++;
+					}
+				}
+			}
+		}
+
+		// Tarjan's algorithm closes a component after every component it points to, so reverse the numbers
+		for (int i = 0; i < size; i++) component[i] = components - 1 - component[i];
+		return component;
+	}
+
+	/*
+	 * This method creates a list of nodes with the given values, so that the results
+	 * can be sorted and written in the same way as the other pagerank algorithms.
+	 */
+	public List<Node> toNetwork(double[] values) {
+		List<Node> network = new ArrayList<Node>(names.length);
+		for (int i = 0; i < names.length; i++) {
+			Node node = new Node(names[i]);
+			node.setValue(values[i]);
+			network.add(node);
+		} return network;
+	}
+
+	/*
+	 * Gets the number of nodes.
+	 */
+	public int size() {
+		return this.names.length;
+	}
+
+	/*
+	 * Gets the number of edges.
+	 */
+	public int getEdgeCount() {
+		return this.targets.length;
+	}
+
+	/*
+	 * Gets the name of the node at the given index.
+	 */
+	public String getName(int node) {
+		return this.names[node];
+	}
+
+	/*
+	 * Gets the node names.
+	 */
+	public String[] getNames() {
+		return this.names;
+	}
+
+	/*
+	 * Gets the edge offsets.
+	 */
+	public int[] getOffsets() {
+		return this.offsets;
+	}
+
+	/*
+	 * Gets the edge targets.
+	 */
+	public int[] getTargets() {
+		return this.targets;
+	}
+
+	/*
+	 * Gets the edge weights, which are null if the network is unweighted.
+	 */
+	public double[] getWeights() {
+		return this.weights;
+	}
+
+	/*
+	 * Gets how many times each edge counts, which are null unless repeated edges were counted.
+	 */
+	public int[] getMultiplicities() {
+		return this.multiplicities;
+	}
+
+	/*
+	 * Gets whether the network is undirected.
+	 */
+	public boolean isUndirected() {
+		return this.undirected;
+	}
+
+	/*
+	 * Gets the number of outgoing edges of the node at the given index. For an
+	 * undirected network this is the number of edges the node is on.
+	 */
+	public int getOutDegree(int node) {
+		if (undirected) return this.degrees[node];
+		return this.offsets[node + 1] - this.offsets[node];
+	}
+
+}
@@ -0,0 +1,279 @@
+package pageRankAlgorithm;
+
+import java.util.List;
+import java.util.Scanner;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class ComponentPageRank {
+
+	private CompactNetwork incoming;
+	private int[] components;
+	private int[] componentOffsets;
+	private int[] members;
+	private int[] positions;
+	private double[] scales;
+	private double base;
+	private double variance;
+	private double tolerance;
+	private double[] values;
+
+	/*
+	 * Input: Any number of filepaths linking to .csv files
+	 * Output: The number of strongly connected components, the runtime for the component
+	 * pagerank algorithm and for the weighted pagerank algorithm, and the largest difference
+	 * between their results
+	 * The following program runs the component pagerank algorithm on given .csv files.
+	 */
+	public static void main(String[] args) throws Exception {
+
+		System.out.println("Input Filenames: ");
+		// Read in input file names
+		Scanner sc = new Scanner(System.in);
+		while (sc.hasNextLine()) {
+			// Only valid file names will be accepted, otherwise an exception will be thrown
+			String fileName = sc.nextLine().trim();
+			System.out.println("\n" + fileName);
+			if (!fileName.equals("")) {
+				// Run the pagerank algorithms on the files and compare their results
+				List<Node> components = runComponents(fileName, Runtime.getRuntime().availableProcessors());
+				List<Node> weighted = WeightedPageRank.runWeighted(fileName, -1);
+				System.out.println("Max Deviation: " + PageRank.maxDeviation(components, weighted));
+			}
+		} sc.close();
+
+	}
+
+	/*
+	 * This method runs the component page rank algorithm on a given file with the given number
+	 * of threads. It also prints out the number of components, the size of the largest one, and
+	 * the running time of the algorithm in milliseconds.
+	 */
+	public static List<Node> runComponents(String fileName, int threads) throws Exception {
+		// Build the network on which the pagerank algorithm will be run
+		CompactNetwork network = CompactNetwork.buildNetwork(fileName);
+		// Calculate the variance which will determine when the algorithm converges
+		double variance = PageRank.calculateVariance(network.size());
+
+		System.out.println("Components:");
+		final long startTime = System.currentTimeMillis();
+		// Run the pagerank algorithm for the network using the calculated variance
+		ComponentPageRank solver = new ComponentPageRank(network, variance);
+		double[] values = solver.solve(threads);
+		final long endTime = System.currentTimeMillis();
+		System.out.println("Strongly Connected Components: " + solver.getComponentCount() + ", largest "
+				+ solver.getLargestComponent() + " nodes");
+		System.out.println("Run Time: " + ((double)endTime - startTime) + " ms");
+
+		return network.toNetwork(values);
+	}
+
+	/*
+	 * The ComponentPageRank class runs the iterative version of the pagerank algorithm with a
+	 * damping factor of .85 one strongly connected component at a time. Value only flows from a
+	 * component to the components after it in topological order, so once every component before
+	 * one is solved, its values are fixed and the component can be iterated on its own until it
+	 * converges, instead of the whole network iterating until its slowest part converges. A
+	 * component made of a single node without a self loop is solved in one step.
+	 *
+	 * A sink gives its value to every node, which couples every component to every other. But the
+	 * sinks' value is spread evenly, just like 1 minus the damping factor, so the values with the
+	 * sinks' value lost are in the same proportions as the real ones; the components are solved
+	 * that way and the values are divided by their total at the end.
+	 */
+	public ComponentPageRank(CompactNetwork network, double variance) {
+
+		// This is the damping factor for the network
+		double d = .85;
+
+		network.requireDirected("Component pagerank");
+		network.requireUnweighted("Component pagerank");
+		int size = network.size();
+		this.incoming = network.reverse();
+		this.components = network.findComponents();
+		this.base = (1-d)/size;
+		this.variance = variance;
+		// Each component is iterated until it changes by less than this, which keeps its error within the variance
+		this.tolerance = variance*(1-d);
+		this.values = new double[size];
+
+		// The damping factor over each node's number of outgoing edges, which is 0 for a sink
+		int[] offsets = network.getOffsets();
+		this.scales = new double[size];
+		for (int i = 0; i < size; i++) {
+			int degree = offsets[i + 1] - offsets[i];
+			scales[i] = degree == 0 ? 0 : d/degree;
+		}
+
+		// Group the nodes by component, and record each node's position within its component
+		int count = 0;
+		for (int component : components) count = Math.max(count, component + 1);
+		this.componentOffsets = new int[count + 1];
+		for (int component : components) componentOffsets[component + 1]++;
+		for (int c = 0; c < count; c++) componentOffsets[c + 1] += componentOffsets[c];
+		this.members = new int[size];
+		this.positions = new int[size];
+		int[] filled = new int[count];
+		for (int i = 0; i < size; i++) {
+			int c = components[i];
+			positions[i] = filled[c]++;
+			members[componentOffsets[c] + positions[i]] = i;
+		}
+	}
+
+	/*
+	 * This method solves every component and returns the values normalized over the variance.
+	 * With one thread the components are solved in topological order. With more, each component
+	 * counts the edges into it from other components, and is solved by the thread pool as soon
+	 * as every one of those edges' components is solved, so components that do not depend on
+	 * each other are solved at the same time.
+	 */
+	public double[] solve(int threads) throws Exception {
+		int count = getComponentCount();
+		if (threads <= 1) {
+			for (int c = 0; c < count; c++) solveComponent(c);
+		} else {
+			solveParallel(count, threads);
+		}
+
+		// Divide the values by their total, and normalize all values over the variance
+		double[] result = values.clone();
+		ArrayKernels.scale(result, 1/ArrayKernels.sum(result));
+		ArrayKernels.normalize(result, variance);
+		return result;
+	}
+
+	/*
+	 * This method solves the components in a pool of threads, starting each one once the
+	 * components with edges into it are solved.
+	 */
+	private void solveParallel(int count, int threads) throws Exception {
+		int[] sources = incoming.getTargets();
+		int[] offsets = incoming.getOffsets();
+		AtomicIntegerArray waiting = new AtomicIntegerArray(count);
+		for (int i = 0; i < values.length; i++) {
+			for (int j = offsets[i]; j < offsets[i + 1]; j++) {
+				if (components[sources[j]] != components[i]) waiting.incrementAndGet(components[i]);
+			}
+		}
+		// The edges out of each component's nodes, to find the components waiting on it
+		CompactNetwork outgoing = incoming.reverse();
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		CountDownLatch done = new CountDownLatch(count);
+		AtomicReference<RuntimeException> error = new AtomicReference<RuntimeException>();
+		// Find every component with nothing to wait for before submitting any, since the workers
+		// bring other components' counts to 0 and submit those themselves
+		int[] ready = new int[count];
+		int readyCount = 0;
+		for (int c = 0; c < count; c++) if (waiting.get(c) == 0) ready[readyCount++] = c;
+		for (int r = 0; r < readyCount; r++) submit(ready[r], pool, waiting, outgoing, done, error);
+		done.await();
+		pool.shutdown();
+		if (error.get() != null) throw error.get();
+	}
+
+	/*
+	 * This method submits a component to the pool. Once it is solved, every edge out of it to
+	 * another component is counted off, and any component with no edges left to wait for is
+	 * submitted. If solving fails the latch is released so the run stops.
+	 */
+	private void submit(int c, ExecutorService pool, AtomicIntegerArray waiting, CompactNetwork outgoing,
+			CountDownLatch done, AtomicReference<RuntimeException> error) {
+		pool.execute(() -> {
+			try {
+				solveComponent(c);
+				int[] offsets = outgoing.getOffsets();
+				int[] targets = outgoing.getTargets();
+				for (int m = componentOffsets[c]; m < componentOffsets[c + 1]; m++) {
+					int i = members[m];
+					for (int j = offsets[i]; j < offsets[i + 1]; j++) {
+						int target = components[targets[j]];
+						if (target != c && waiting.decrementAndGet(target) == 0) {
+							submit(target, pool, waiting, outgoing, done, error);
+						}
+					}
+				}
+				done.countDown();
+			} catch (RuntimeException ex) {
+				error.compareAndSet(null, ex);
+				while (done.getCount() > 0) done.countDown();
+			}
+		});
+	}
+
+	/*
+	 * This method solves one component, whose earlier components are already solved. The value
+	 * each node gets from outside the component is added up once, and the edges inside the
+	 * component are copied out with the positions of their sources, so each iteration only
+	 * follows the component's own edges. Each node's new value is used as soon as it is found,
+	 * which converges in fewer iterations than waiting for the next iteration.
+	 */
+	public void solveComponent(int c) {
+		int[] offsets = incoming.getOffsets();
+		int[] sources = incoming.getTargets();
+		int start = componentOffsets[c];
+		int size = componentOffsets[c + 1] - start;
+
+		// The value from outside the component, and the edges inside it
+		double[] external = new double[size];
+		int[] localOffsets = new int[size + 1];
+		int internal = 0;
+		for (int q = 0; q < size; q++) {
+			int i = members[start + q];
+			external[q] = base;
+			for (int j = offsets[i]; j < offsets[i + 1]; j++) {
+				if (components[sources[j]] == c) internal++;
+				else external[q] += scales[sources[j]]*values[sources[j]];
+			}
+			localOffsets[q + 1] = internal;
+		}
+		if (internal == 0) {
+			for (int q = 0; q < size; q++) values[members[start + q]] = external[q];
+			return;
+		}
+		int[] localSources = new int[internal];
+		double[] localScales = new double[internal];
+		for (int q = 0, e = 0; q < size; q++) {
+			int i = members[start + q];
+			for (int j = offsets[i]; j < offsets[i + 1]; j++) {
+				if (components[sources[j]] != c) continue;
+				localSources[e] = positions[sources[j]];
+				localScales[e++] = scales[sources[j]];
+			}
+		}
+
+		// Iterate the component, starting from the value it gets from outside, until it converges
+		double[] local = external.clone();
+		double change = Double.MAX_VALUE;
+		while (change > tolerance) {
+			change = 0;
+			for (int q = 0; q < size; q++) {
+				double future = external[q];
+				for (int e = localOffsets[q]; e < localOffsets[q + 1]; e++) future += localScales[e]*local[localSources[e]];
+				change = Math.max(change, Math.abs(future - local[q]));
+				local[q] = future;
+			}
+		}
+		for (int q = 0; q < size; q++) values[members[start + q]] = local[q];
+	}
+
+	/*
+	 * Gets the number of strongly connected components.
+	 */
+	public int getComponentCount() {
+		return this.componentOffsets.length - 1;
+	}
+
+	/*
+	 * Gets the number of nodes in the largest strongly connected component.
+	 */
+	public int getLargestComponent() {
+		int largest = 0;
+		for (int c = 0; c < getComponentCount(); c++) largest = Math.max(largest, componentOffsets[c + 1] - componentOffsets[c]);
+		return largest;
+	}
+
+}
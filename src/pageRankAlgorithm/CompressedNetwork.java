@@ -0,0 +1,309 @@
+package pageRankAlgorithm;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class CompressedNetwork {
+
+	// Each page holds at most 2^30 bytes, so a position within a page fits in an int
+	private static final int PAGE_BITS = 30;
+	private static final long PAGE_MASK = (1L << PAGE_BITS) - 1;
+
+	private String[] names;
+	private int[] degrees;
+	private long[] offsets;
+	private byte[][] pages;
+	private long edgeCount;
+	// The pages filled so far, the page being filled and the position in it, while the network is built
+	private List<byte[]> filled;
+	private byte[] page;
+	private int position;
+
+	/*
+	 * The CompressedNetwork class stores the incoming edges of a network compressed, in the way
+	 * WebGraph does. Each node's incoming edges are sorted by the node they come from, so only
+	 * the gap from one source to the next has to be stored, and the gaps are stored as variable
+	 * length integers: seven bits per byte, with the high bit set on every byte but the last.
+	 * A node's list starts with its number of incoming edges and then its first source, so most
+	 * edges between nodes with nearby indices take a single byte instead of the four an int takes.
+	 * The bytes are split into pages of up to 1 GB, with no list straddling two pages, and each
+	 * node keeps the page and position its list starts at in a long. The lists are decoded on the
+	 * fly while iterating, so the edges are never expanded back into ints, and buildNetwork
+	 * compresses a file one partition at a time, so they are never all held as ints while
+	 * building either. The number of edges is only limited by the memory for the pages.
+	 */
+	public CompressedNetwork(String[] names, int[] degrees, long[] offsets, byte[][] pages, long edgeCount) {
+		this.names = names;
+		this.degrees = degrees;
+		this.offsets = offsets;
+		this.pages = pages;
+		this.edgeCount = edgeCount;
+	}
+
+	/*
+	 * This creates an empty compressed network with the given out-degrees, whose incoming edges
+	 * are then appended one node at a time in order.
+	 */
+	private CompressedNetwork(String[] names, int[] degrees, long edgeCount) {
+		this(names, degrees, new long[names.length], null, edgeCount);
+		this.filled = new ArrayList<byte[]>();
+		this.page = new byte[1024];
+		this.position = 0;
+	}
+
+	/*
+	 * This method takes in a filename and builds the compressed network from it without ever
+	 * holding all of the edges as ints. The edges are first written to partition files by
+	 * StreamingNetwork in one pass over the file, and each partition is then compressed on its
+	 * own, so only the edges into one partition of 2^20 nodes are in memory at a time. The
+	 * partition files are deleted afterwards.
+	 */
+	public static CompressedNetwork buildNetwork(String fileName) throws Exception {
+		File directory = Files.createTempDirectory("compressed").toFile();
+		StreamingNetwork network = StreamingNetwork.buildNetwork(fileName, directory);
+		try {
+			return fromPartitions(network);
+		} finally {
+			network.delete();
+			directory.delete();
+		}
+	}
+
+	/*
+	 * This method compresses the incoming edges of a network streamed into partition files. Each
+	 * partition file is read twice: once to count the edges into each of its nodes, and once to
+	 * place each edge's from node among its to node's incoming edges. The lists are then sorted
+	 * and appended, so peak memory is the compressed pages plus one partition's sources.
+	 */
+	public static CompressedNetwork fromPartitions(StreamingNetwork network) throws Exception {
+		int size = network.size();
+		CompressedNetwork compressed = new CompressedNetwork(network.getNames(), network.getDegrees(), network.getEdgeCount());
+		File[] partitions = network.getPartitions();
+		int partitionSize = 1 << StreamingNetwork.PARTITION_BITS;
+
+		for (int p = 0; (long) p * partitionSize < size; p++) {
+			int first = p * partitionSize;
+			int count = Math.min(size - first, partitionSize);
+			int[] offsets = new int[count + 1];
+			int[] sources = new int[0];
+			if (p < partitions.length) {
+				long edges = partitions[p].length() / 8;
+				if (edges > Integer.MAX_VALUE - 8) throw new IllegalArgumentException("Too many edges in partition " + p + ": " + edges);
+				// Count the edges into each node, then place each edge after the ones before it
+				DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(partitions[p]), 1 << 16));
+				for (long j = 0; j < edges; j++) {
+					in.readInt();
+					offsets[in.readInt() - first + 1]++;
+				} in.close();
+				for (int i = 0; i < count; i++) offsets[i + 1] += offsets[i];
+				int[] positions = Arrays.copyOf(offsets, count);
+				sources = new int[(int) edges];
+				in = new DataInputStream(new BufferedInputStream(new FileInputStream(partitions[p]), 1 << 16));
+				for (long j = 0; j < edges; j++) {
+					int from = in.readInt();
+					sources[positions[in.readInt() - first]++] = from;
+				} in.close();
+			}
+			for (int i = 0; i < count; i++) {
+				Arrays.sort(sources, offsets[i], offsets[i + 1]);
+				compressed.append(first + i, sources, offsets[i], offsets[i + 1]);
+			}
+		}
+		compressed.finish();
+		return compressed;
+	}
+
+	/*
+	 * This method compresses the incoming edges of a compact network that is already in memory.
+	 */
+	public static CompressedNetwork fromNetwork(CompactNetwork network) {
+		network.requireDirected("A compressed network");
+		network.requireUnweighted("A compressed network");
+		// The reverse is a new network, so its lists can be sorted in place
+		CompactNetwork incoming = network.reverse();
+		int size = network.size();
+		int[] inOffsets = incoming.getOffsets();
+		int[] sources = incoming.getTargets();
+		int[] degrees = new int[size];
+		for (int i = 0; i < size; i++) degrees[i] = network.getOutDegree(i);
+
+		CompressedNetwork compressed = new CompressedNetwork(network.getNames(), degrees, network.getEdgeCount());
+		for (int i = 0; i < size; i++) {
+			Arrays.sort(sources, inOffsets[i], inOffsets[i + 1]);
+			compressed.append(i, sources, inOffsets[i], inOffsets[i + 1]);
+		}
+		compressed.finish();
+		return compressed;
+	}
+
+	/*
+	 * This method appends the incoming edges of the next node, the sorted sources from start up
+	 * to (but not including) end. The page doubles in size as it fills, and a new page is started
+	 * once the list might not fit in 1 GB.
+	 */
+	private void append(int node, int[] sources, int start, int end) {
+		// Every value takes at most 5 bytes
+		long longest = 5L * (end - start + 1);
+		if (longest > PAGE_MASK + 1) throw new IllegalArgumentException("Too many incoming edges for a page: " + names[node]);
+		if (position + longest > PAGE_MASK + 1) {
+			filled.add(Arrays.copyOf(page, position));
+			page = new byte[1024];
+			position = 0;
+		}
+		if (position + longest > page.length) {
+			page = Arrays.copyOf(page, (int) Math.min(PAGE_MASK + 1, Math.max(2L * page.length, position + longest)));
+		}
+
+		offsets[node] = ((long) filled.size() << PAGE_BITS) | position;
+		position = writeVarint(page, position, end - start);
+		int prior = 0;
+		for (int j = start; j < end; j++) {
+			position = writeVarint(page, position, sources[j] - prior);
+			prior = sources[j];
+		}
+	}
+
+	/*
+	 * This method trims the last page once every node has been appended.
+	 */
+	private void finish() {
+		filled.add(Arrays.copyOf(page, position));
+		pages = filled.toArray(new byte[filled.size()][]);
+		filled = null;
+		page = null;
+	}
+
+	/*
+	 * This method writes a non-negative int into the page at the given position as a variable
+	 * length integer, and returns the position after it.
+	 */
+	public static int writeVarint(byte[] page, int position, int value) {
+		while ((value & ~0x7F) != 0) {
+			page[position++] = (byte) ((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		page[position++] = (byte) value;
+		return position;
+	}
+
+	/*
+	 * This method decodes the incoming edges of the node at the given index into the array,
+	 * which must be large enough, and returns how many there are. The iterations decode the
+	 * lists inline instead, but this is useful for checking the encoding.
+	 */
+	public int getSources(int node, int[] sources) {
+		byte[] page = this.pages[(int) (this.offsets[node] >>> PAGE_BITS)];
+		int position = (int) (this.offsets[node] & PAGE_MASK);
+		int[] count = new int[1];
+		position = readVarint(page, position, count);
+		int source = 0;
+		int[] gap = new int[1];
+		for (int j = 0; j < count[0]; j++) {
+			position = readVarint(page, position, gap);
+			source += gap[0];
+			sources[j] = source;
+		} return count[0];
+	}
+
+	/*
+	 * This method reads a variable length integer from the page at the given position into the
+	 * first element of the value array, and returns the position after it.
+	 */
+	public static int readVarint(byte[] page, int position, int[] value) {
+		int result = 0, shift = 0;
+		byte b;
+		do {
+			b = page[position++];
+			result |= (b & 0x7F) << shift;
+			shift += 7;
+		} while (b < 0);
+		value[0] = result;
+		return position;
+	}
+
+	/*
+	 * This method creates a list of nodes with the given values, so that the results
+	 * can be sorted and written in the same way as the other pagerank algorithms.
+	 */
+	public List<Node> toNetwork(double[] values) {
+		List<Node> network = new ArrayList<Node>(this.names.length);
+		for (int i = 0; i < this.names.length; i++) {
+			Node node = new Node(this.names[i]);
+			node.setValue(values[i]);
+			network.add(node);
+		} return network;
+	}
+
+	/*
+	 * Gets the number of nodes.
+	 */
+	public int size() {
+		return this.names.length;
+	}
+
+	/*
+	 * Gets the number of edges.
+	 */
+	public long getEdgeCount() {
+		return this.edgeCount;
+	}
+
+	/*
+	 * Gets the number of bytes the compressed edges take.
+	 */
+	public long getEdgeBytes() {
+		long bytes = 0;
+		for (byte[] page : this.pages) bytes += page.length;
+		return bytes;
+	}
+
+	/*
+	 * Gets the average number of bits each edge takes, including the count at the start of each list.
+	 */
+	public double getBitsPerEdge() {
+		return this.edgeCount == 0 ? 0 : 8.0 * getEdgeBytes() / this.edgeCount;
+	}
+
+	/*
+	 * Gets the name of the node at the given index.
+	 */
+	public String getName(int node) {
+		return this.names[node];
+	}
+
+	/*
+	 * Gets the number of outgoing edges of each node.
+	 */
+	public int[] getOutDegrees() {
+		return this.degrees;
+	}
+
+	/*
+	 * Gets the page and position each node's incoming edges start at, with the page in the
+	 * bits above getPageBits().
+	 */
+	public long[] getOffsets() {
+		return this.offsets;
+	}
+
+	/*
+	 * Gets the pages of compressed edges.
+	 */
+	public byte[][] getPages() {
+		return this.pages;
+	}
+
+	/*
+	 * Gets the number of bits used for the position within a page.
+	 */
+	public static int getPageBits() {
+		return PAGE_BITS;
+	}
+
+}
@@ -0,0 +1,163 @@
+package pageRankAlgorithm;
+
+import java.util.List;
+import java.util.Scanner;
+
+public class CompressedPageRank {
+
+	/*
+	 * Input: Any number of filepaths linking to .csv files
+	 * Output: The bits per edge of the compressed network, the runtime and edges per second for
+	 * the compressed pagerank algorithm and for the weighted pagerank algorithm on the uncompressed
+	 * network, and the largest difference between their results
+	 * The following program runs the compressed pagerank algorithm on given .csv files.
+	 */
+	public static void main(String[] args) throws Exception {
+
+		System.out.println("Input Filenames: ");
+		// Read in input file names
+		Scanner sc = new Scanner(System.in);
+		while (sc.hasNextLine()) {
+			// Only valid file names will be accepted, otherwise an exception will be thrown
+			String fileName = sc.nextLine().trim();
+			System.out.println("\n" + fileName);
+			if (!fileName.equals("")) {
+				// Run the pagerank algorithms on the file and compare their results
+				testCompressed(fileName);
+			}
+		} sc.close();
+
+	}
+
+	/*
+	 * This method runs the compressed page rank algorithm on a given file.
+	 * It also prints out the running time of the algorithm in milliseconds.
+	 */
+	public static List<Node> runCompressed(String fileName) throws Exception {
+		// Build the network on which the pagerank algorithm will be run
+		CompressedNetwork network = CompressedNetwork.buildNetwork(fileName);
+		// Calculate the variance which will determine when the algorithm converges
+		double variance = PageRank.calculateVariance(network.size());
+
+		System.out.println("Compressed:");
+		final long startTime = System.currentTimeMillis();
+		// Run the pagerank algorithm for the network using the calculated variance
+		double[] values = new double[network.size()];
+		pageRankCompressed(network, values, variance);
+		final long endTime = System.currentTimeMillis();
+		System.out.println("Run Time: " + ((double)endTime - startTime) + " ms");
+
+		return network.toNetwork(values);
+	}
+
+	/*
+	 * This method compares the compressed network against the compact network it was built from.
+	 * It prints the bits each edge takes in both, and the millions of edges each algorithm reads
+	 * per second. Both run the same number of iterations, so the difference is the cost of
+	 * decoding the edges. The weighted algorithm runs first, so both are timed after warming up.
+	 */
+	public static void testCompressed(String fileName) throws Exception {
+		CompactNetwork compact = CompactNetwork.buildNetwork(fileName);
+		CompressedNetwork compressed = CompressedNetwork.fromNetwork(compact);
+		double variance = PageRank.calculateVariance(compact.size());
+		System.out.println("Bits Per Edge: " + compressed.getBitsPerEdge() + " compressed, 32.0 uncompressed");
+
+		for (int run = 0; run < 2; run++) {
+			final long weightedStart = System.nanoTime();
+			double[] weighted = WeightedPageRank.pageRankWeighted(compact, variance);
+			final long weightedEnd = System.nanoTime();
+			double[] values = new double[compact.size()];
+			int iterations = pageRankCompressed(compressed, values, variance);
+			final long compressedEnd = System.nanoTime();
+
+			double edges = (double) iterations * compressed.getEdgeCount();
+			System.out.println("Iterations: " + iterations);
+			System.out.println("Uncompressed: " + edges/((weightedEnd - weightedStart)/1000.0) + " million edges per second");
+			System.out.println("Compressed: " + edges/((compressedEnd - weightedEnd)/1000.0) + " million edges per second");
+			System.out.println("Max Deviation: " + PageRank.maxDeviation(compressed.toNetwork(values), compact.toNetwork(weighted)));
+		}
+	}
+
+	/*
+	 * This method runs the iterative version of the pagerank algorithm with a damping factor of .85
+	 * on a compressed network, pulling each node's future value from its incoming edges as they
+	 * are decoded. The variable length integers are decoded inline, since returning both a value
+	 * and a position from a method would allocate. The sources come in increasing order, the same
+	 * order pageRankWeighted adds them in, so the results are identical to it. It fills in the
+	 * values normalized over the variance, and returns the number of iterations.
+	 */
+	public static int pageRankCompressed(CompressedNetwork network, double[] result, double variance) {
+
+		// This is the damping factor for the network
+		double d = .85;
+
+		int size = network.size();
+		int[] degrees = network.getOutDegrees();
+		long[] offsets = network.getOffsets();
+		byte[][] pages = network.getPages();
+		int pageBits = CompressedNetwork.getPageBits();
+		long pageMask = (1L << pageBits) - 1;
+
+		double[] values = new double[size];
+		double[] future = new double[size];
+		double[] shares = new double[size];
+		// The damping factor over the number of each node's outgoing edges
+		double[] scales = new double[size];
+		for (int i = 0; i < size; i++) scales[i] = degrees[i] == 0 ? 0 : d/(double) degrees[i];
+		ArrayKernels.fill(future, 1/(double) size);
+
+		// Run generate the new values for each node until the largest change is within the variance
+		int iterations = 0;
+		double change = Double.MAX_VALUE;
+		while (change > variance) {
+			// Swap the future values into the current values
+			double[] temp = values;
+			values = future;
+			future = temp;
+			iterations++;
+
+			// Calculate each node's damped share, and sum the sinks' values
+			double sinkSum = 0;
+			for (int i = 0; i < size; i++) {
+				if (degrees[i] == 0) sinkSum += values[i];
+				shares[i] = scales[i]*values[i];
+			}
+			// Every node gets 1 minus the damping factor, and its part of the sinks' value
+			double base = (1-d)/size + d*sinkSum/size;
+
+			// Pull each node's future value from the shares of its incoming edges, decoding them as they are read
+			change = 0;
+			for (int i = 0; i < size; i++) {
+				byte[] page = pages[(int) (offsets[i] >>> pageBits)];
+				int position = (int) (offsets[i] & pageMask);
+				int count = 0, shift = 0;
+				byte b;
+				do {
+					b = page[position++];
+					count |= (b & 0x7F) << shift;
+					shift += 7;
+				} while (b < 0);
+
+				double sum = base;
+				int source = 0;
+				for (int j = 0; j < count; j++) {
+					b = page[position++];
+					int gap = b & 0x7F;
+					for (shift = 7; b < 0; shift += 7) {
+						b = page[position++];
+						gap |= (b & 0x7F) << shift;
+					}
+					source += gap;
+					sum += shares[source];
+				}
+				future[i] = sum;
+				change = Math.max(change, Math.abs(sum - values[i]));
+			}
+		}
+
+		// After convergence normalize all values over the variance
+		for (int i = 0; i < size; i++) result[i] = Math.ceil(future[i]/variance)*variance;
+		return iterations;
+	}
+
+}
@@ -0,0 +1,183 @@
+package pageRankAlgorithm;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Scanner;
+
+public class DampingSweep {
+
+	/*
+	 * Input: Any number of filepaths linking to .csv files
+	 * Output: The runtime for the damping sweep from .5 to .95 and for solving each damping factor
+	 * on its own, and the largest difference between the sweep's .85 results and the weighted
+	 * pagerank algorithm's
+	 * The following program runs the damping sweep on given .csv files.
+	 */
+	public static void main(String[] args) throws Exception {
+
+		// The damping factors from .5 to .95 in steps of .05
+		double[] dampings = new double[10];
+		for (int q = 0; q < dampings.length; q++) dampings[q] = (50 + 5*q)/100.0;
+
+		System.out.println("Input Filenames: ");
+		// Read in input file names
+		Scanner sc = new Scanner(System.in);
+		while (sc.hasNextLine()) {
+			// Only valid file names will be accepted, otherwise an exception will be thrown
+			String fileName = sc.nextLine().trim();
+			System.out.println("\n" + fileName);
+			if (!fileName.equals("")) {
+				// Run the sweep and the separate runs on the file and compare their results
+				List<List<Node>> sweep = runSweep(fileName, dampings);
+				runSeparately(fileName, dampings);
+				List<Node> weighted = WeightedPageRank.runWeighted(fileName, -1);
+				System.out.println("Max Deviation: " + PageRank.maxDeviation(sweep.get(7), weighted));
+			}
+		} sc.close();
+
+	}
+
+	/*
+	 * This method runs the damping sweep on a given file for the given damping factors. It returns
+	 * one network per damping factor, and also prints out the running time of the algorithm in
+	 * milliseconds.
+	 */
+	public static List<List<Node>> runSweep(String fileName, double[] dampings) throws Exception {
+		// Build the network on which the pagerank algorithm will be run
+		CompactNetwork network = CompactNetwork.buildNetwork(fileName);
+		// Calculate the variance which will determine when the algorithm converges
+		double variance = PageRank.calculateVariance(network.size());
+
+		System.out.println("Sweep (" + dampings.length + " damping factors):");
+		final long startTime = System.currentTimeMillis();
+		// Run the pagerank algorithm for the network using the calculated variance
+		double[][] values = pageRankSweep(network, dampings, variance);
+		final long endTime = System.currentTimeMillis();
+		System.out.println("Run Time: " + ((double)endTime - startTime) + " ms");
+
+		List<List<Node>> networks = new ArrayList<List<Node>>();
+		for (double[] v : values) networks.add(network.toNetwork(v));
+		return networks;
+	}
+
+	/*
+	 * This method solves each of the damping factors on its own, one after another, and prints
+	 * out the total running time in milliseconds, to compare against the sweep.
+	 */
+	public static void runSeparately(String fileName, double[] dampings) throws Exception {
+		CompactNetwork network = CompactNetwork.buildNetwork(fileName);
+		double variance = PageRank.calculateVariance(network.size());
+
+		System.out.println("Separate Runs (" + dampings.length + " damping factors):");
+		final long startTime = System.currentTimeMillis();
+		for (double d : dampings) pageRankSweep(network, new double[] {d}, variance);
+		final long endTime = System.currentTimeMillis();
+		System.out.println("Run Time: " + ((double)endTime - startTime) + " ms");
+	}
+
+	/*
+	 * This method runs the iterative version of the pagerank algorithm for every damping factor at
+	 * once. The values of the k damping factors are interleaved, so node i's value for damping
+	 * factor q is stored at i * k + q, and each edge is read once per iteration for all of them.
+	 * Smaller damping factors converge in fewer iterations, so as soon as one converges its values
+	 * are kept and it is dropped from the interleaved arrays, leaving the rest to read fewer
+	 * doubles per edge. Each node's future value is built in the same order as pageRankWeighted,
+	 * so the results for .85 are identical to it. It returns the values of each damping factor
+	 * normalized over the variance, in the order given.
+	 */
+	public static double[][] pageRankSweep(CompactNetwork network, double[] dampings, double variance) {
+
+		network.requireDirected("The damping sweep");
+		network.requireUnweighted("The damping sweep");
+		CompactNetwork incoming = network.reverse();
+		int size = network.size();
+		int[] offsets = incoming.getOffsets();
+		int[] sources = incoming.getTargets();
+		double[][] result = new double[dampings.length][];
+
+		// The damping factors still iterating, and where each one's result goes
+		int k = dampings.length;
+		double[] active = dampings.clone();
+		int[] order = new int[k];
+		for (int q = 0; q < k; q++) order[q] = q;
+
+		double[] values = new double[size * k];
+		double[] future = new double[size * k];
+		double[] shares = new double[size * k];
+		double[] teleports = new double[k];
+		double[] changes = new double[k];
+		ArrayKernels.fill(future, 1/(double) size);
+
+		// Run generate the new values for each node until every damping factor converges
+		while (k > 0) {
+			// Swap the future values into the current values
+			double[] temp = values;
+			values = future;
+			future = temp;
+
+			// Calculate each node's damped shares, and sum the value held by the sinks for each damping factor
+			for (int q = 0; q < k; q++) teleports[q] = 0;
+			for (int i = 0; i < size; i++) {
+				int degree = network.getOutDegree(i);
+				int base = i * k;
+				if (degree == 0) {
+					for (int q = 0; q < k; q++) {
+						teleports[q] += values[base + q];
+						shares[base + q] = 0;
+					}
+				} else {
+					for (int q = 0; q < k; q++) shares[base + q] = active[q]/degree*values[base + q];
+				}
+			}
+			// Every node gets 1 minus the damping factor, and its part of the sinks' value
+			for (int q = 0; q < k; q++) teleports[q] = (1-active[q])/size + active[q]*teleports[q]/size;
+
+			// Pull the damped shares of the incoming edges for every damping factor at once
+			for (int q = 0; q < k; q++) changes[q] = 0;
+			for (int i = 0; i < size; i++) {
+				int base = i * k;
+				for (int q = 0; q < k; q++) future[base + q] = teleports[q];
+				for (int j = offsets[i]; j < offsets[i + 1]; j++) {
+					int source = sources[j] * k;
+					for (int q = 0; q < k; q++) future[base + q] += shares[source + q];
+				}
+				for (int q = 0; q < k; q++) changes[q] = Math.max(changes[q], Math.abs(future[base + q] - values[base + q]));
+			}
+
+			// Keep the results of the damping factors that converged, and drop them from the arrays
+			int remaining = 0;
+			for (int q = 0; q < k; q++) {
+				if (changes[q] > variance) remaining++;
+				else {
+					result[order[q]] = new double[size];
+					for (int i = 0; i < size; i++) result[order[q]][i] = Math.ceil(future[i * k + q]/variance)*variance;
+				}
+			}
+			if (remaining < k) {
+				values = new double[size * remaining];
+				future = compact(future, changes, variance, k, remaining);
+				shares = new double[size * remaining];
+				for (int q = 0, r = 0; q < k; q++) {
+					if (changes[q] <= variance) continue;
+					active[r] = active[q];
+					order[r++] = order[q];
+				} k = remaining;
+			}
+		} return result;
+	}
+
+	/*
+	 * This method copies the interleaved values of the damping factors that have not converged
+	 * into an array with only their columns.
+	 */
+	private static double[] compact(double[] values, double[] changes, double variance, int k, int remaining) {
+		int size = values.length / k;
+		double[] compacted = new double[size * remaining];
+		for (int q = 0, r = 0; q < k; q++) {
+			if (changes[q] <= variance) continue;
+			for (int i = 0; i < size; i++) compacted[i * remaining + r] = values[i * k + q];
+			r++;
+		} return compacted;
+	}
+
+}
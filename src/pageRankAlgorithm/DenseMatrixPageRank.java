@@ -0,0 +1,125 @@
+package pageRankAlgorithm;
+
+import java.util.List;
+import java.util.Scanner;
+import java.util.concurrent.ForkJoinPool;
+
+public class DenseMatrixPageRank {
+
+	/*
+	 * Input: Any number of filepaths linking to .csv files
+	 * Output: The runtime for the dense matrix pagerank algorithm and for the matrix pagerank
+	 * algorithm, and the largest difference between their results
+	 * The following program runs the dense matrix pagerank algorithm on given .csv files.
+	 */
+	public static void main(String[] args) throws Exception {
+
+		System.out.println("Input Filenames: ");
+		// Read in input file names
+		Scanner sc = new Scanner(System.in);
+		while (sc.hasNextLine()) {
+			// Only valid file names will be accepted, otherwise an exception will be thrown
+			String fileName = sc.nextLine().trim();
+			System.out.println("\n" + fileName);
+			if (!fileName.equals("")) {
+				// Run the pagerank algorithms on the files and compare their results
+				List<Node> dense = runDense(fileName, Runtime.getRuntime().availableProcessors());
+				List<Node> matrix = PageRank.runMatrix(fileName);
+				System.out.println("Max Deviation: " + PageRank.maxDeviation(dense, matrix));
+			}
+		} sc.close();
+
+	}
+
+	/*
+	 * This method runs the dense matrix page rank algorithm on a given file with the given
+	 * number of threads. It also prints out the running time of the algorithm in milliseconds.
+	 */
+	public static List<Node> runDense(String fileName, int threads) throws Exception {
+		// Build the network on which the pagerank algorithm will be run
+		CompactNetwork network = CompactNetwork.buildNetwork(fileName);
+		// Calculate the variance which will determine when the algorithm converges
+		double variance = PageRank.calculateVariance(network.size());
+
+		System.out.println("Dense Matrix:");
+		ForkJoinPool pool = new ForkJoinPool(threads);
+		final long startTime = System.currentTimeMillis();
+		// Run the pagerank algorithm for the network using the calculated variance
+		double[] values = pageRankDense(network, variance, pool);
+		final long endTime = System.currentTimeMillis();
+		pool.shutdown();
+		System.out.println("Run Time: " + ((double)endTime - startTime) + " ms");
+
+		return network.toNetwork(values);
+	}
+
+	/*
+	 * This method runs the matrix version of the pagerank algorithm with a damping factor of .85
+	 * like pageRankRandomWalkScaled, on one flat array holding the transposed N matrix row after
+	 * row. Each iteration multiplies the matrix by the values in the fork/join pool, which also
+	 * sums the products, so the leak is redistributed without another pass. The values and the
+	 * products are kept in two arrays which are swapped every iteration, so nothing is allocated
+	 * while iterating. Each row is summed with four separate sums, in another order than the
+	 * matrix version adds its products, so the raw values differ in the last bits. They only
+	 * agree once rounded to the variance, as the matrix version rounds them, and a value lying
+	 * right on a rounding boundary can still come out one step of the variance apart.
+	 */
+	public static double[] pageRankDense(CompactNetwork network, double variance, ForkJoinPool pool) {
+
+		// The damping factor is set to .85
+		double d = .85;
+
+		int size = network.size();
+		// The transposed N matrix, so the future value of a node is its row times the values
+		double[] matrix = toTransposedMatrix(network, d);
+		// The values for the nodes, initialized to 1 / the size of the network, and the prior values
+		double[] values = new double[size];
+		double[] prior = new double[size];
+		ArrayKernels.fill(values, 1/(double) size);
+
+		// Update the values until convergence
+		double change = ArrayKernels.maxDifference(values, prior);
+		while (change > variance) {
+			double[] temp = prior;
+			prior = values;
+			values = temp;
+			// Multiply the matrix by the prior values, and redistribute the leak back to the network
+			double total = pool.invoke(new MatrixMultiplyTask(matrix, prior, values, size, 0, size));
+			change = ArrayKernels.scaleAndMaxDifference(values, 1/total, prior);
+		}
+
+		// After convergence round the values to the variance
+		for (int i = 0; i < size; i++) values[i] = Math.round(values[i]/variance)*variance;
+		return values;
+	}
+
+	/*
+	 * This method creates the transpose of the N matrix as a flat row-major array: the entry in
+	 * row j and column i is d / the number of edges out of node i if i has an edge to j, plus
+	 * 1 - d over the size of the network. Like toNMatrixScaled, a repeated edge sets its entry
+	 * again rather than adding to it, and a sink has an edge to every node.
+	 */
+	public static double[] toTransposedMatrix(CompactNetwork network, double d) {
+		network.requireDirected("The dense matrix");
+		network.requireUnweighted("The dense matrix");
+		int size = network.size();
+		if ((long) size * size > Integer.MAX_VALUE - 8) {
+			throw new IllegalArgumentException("Too many nodes for a dense matrix: " + size);
+		}
+		int[] offsets = network.getOffsets();
+		int[] targets = network.getTargets();
+		double[] matrix = new double[size * size];
+		for (int i = 0; i < size; i++) {
+			int degree = offsets[i + 1] - offsets[i];
+			if (degree == 0) {
+				for (int j = 0; j < size; j++) matrix[j * size + i] = d/size;
+			}
+			for (int j = offsets[i]; j < offsets[i + 1]; j++) matrix[targets[j] * size + i] = d/degree;
+		}
+		// Redistribute the remaining 1 - d to each entry in the matrix
+		double teleport = (1-d)/size;
+		for (int i = 0; i < matrix.length; i++) matrix[i] += teleport;
+		return matrix;
+	}
+
+}
@@ -0,0 +1,65 @@
+package pageRankAlgorithm;
+
+import java.util.concurrent.CountDownLatch;
+
+public class DeterministicPartitionThread extends Thread {
+
+	private int[] offsets;
+	private int[] sources;
+	private int[] splits;
+	private int[] degrees;
+	private double[] values;
+	private double[] shares;
+	private double[] nextShares;
+	private int start;
+	private int end;
+	private CountDownLatch latch;
+	private double damping;
+	private double base;
+	private double change;
+
+	/*
+	 * This is a thread that runs one iteration of the deterministic parallelized pagerank
+	 * algorithm on the atomic nodes from start up to (but not including) end. Each node pulls its
+	 * future value from the shares of its incoming edges, so the thread only writes to the values
+	 * and next shares of its own nodes, which act as the partition's buffer, and no value is ever
+	 * added to by two threads.
+	 */
+	public DeterministicPartitionThread(int[] offsets, int[] sources, int[] splits, int[] degrees, double[] values,
+			double[] shares, double[] nextShares, int start, int end, CountDownLatch latch, double damping, double base) {
+		this.offsets = offsets;
+		this.sources = sources;
+		this.splits = splits;
+		this.degrees = degrees;
+		this.values = values;
+		this.shares = shares;
+		this.nextShares = nextShares;
+		this.start = start;
+		this.end = end;
+		this.latch = latch;
+		this.damping = damping;
+		this.base = base;
+	}
+
+	/*
+	 * Gets the largest change of the partition's values.
+	 */
+	public double getChange() {
+		return this.change;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Thread#run()
+	 * This method overrides the original thread run() method.
+	 * This method pulls the future values of the partition and then
+	 * counts down the CountDownLatch when done.
+	 */
+	@Override
+	public void run() {
+		change = PartitionPageRank.pullValues(offsets, sources, splits, degrees, values, shares, nextShares,
+				start, end, damping, base);
+		latch.countDown(); // Count down the latch to signal the termination of the thread
+	}
+
+}
@@ -0,0 +1,228 @@
+package pageRankAlgorithm;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Scanner;
+
+public class DistributedPageRank {
+
+	// How long to wait for a worker to connect, in milliseconds, before giving up on the run
+	public static final int ACCEPT_TIMEOUT = 60000;
+
+	/*
+	 * Input: Any number of lines with a .csv file and the number of workers, separated by a space
+	 * Output: The runtime for the distributed pagerank algorithm, and the largest difference
+	 * between its results and the iterative algorithm's
+	 * The following program runs the distributed pagerank algorithm on given .csv files, starting
+	 * each worker as a separate JVM on this machine.
+	 */
+	public static void main(String[] args) throws Exception {
+
+		System.out.println("Input Filenames and Workers: ");
+		// Read in input file names and numbers of workers
+		Scanner sc = new Scanner(System.in);
+		while (sc.hasNextLine()) {
+			// Only valid file names will be accepted, otherwise an exception will be thrown
+			String[] line = sc.nextLine().trim().split(" ");
+			System.out.println("\n" + line[0]);
+			if (!line[0].equals("")) {
+				int workers = line.length > 1 ? Integer.parseInt(line[1]) : 4;
+				// Run the pagerank algorithms on the files and compare their results
+				List<Node> distributed = runDistributed(line[0], workers);
+				List<Node> iterative = PageRank.runIterative(line[0]);
+				System.out.println("Max Deviation: " + PageRank.maxDeviation(distributed, iterative));
+			}
+		} sc.close();
+
+	}
+
+	/*
+	 * This method runs the distributed page rank algorithm on a given file, with the given number
+	 * of worker JVMs started on this machine. It also prints out the running time of the algorithm
+	 * in milliseconds, including starting the workers.
+	 */
+	public static List<Node> runDistributed(String fileName, int workers) throws Exception {
+		// Build the network on which the pagerank algorithm will be run
+		CompactNetwork network = CompactNetwork.buildNetwork(fileName);
+		// Calculate the variance which will determine when the algorithm converges
+		double variance = PageRank.calculateVariance(network.size());
+
+		System.out.println("Distributed:");
+		final long startTime = System.currentTimeMillis();
+		ServerSocket server = new ServerSocket(0, workers, InetAddress.getLoopbackAddress());
+		List<Process> processes = new ArrayList<Process>();
+		double[] values;
+		try {
+			server.setSoTimeout(ACCEPT_TIMEOUT);
+			processes = startWorkers(server, workers);
+			// Run the pagerank algorithm for the network using the calculated variance
+			values = pageRankDistributed(network, variance, server, workers);
+			for (Process process : processes) process.waitFor();
+		} finally {
+			// A failed run must not leave the port open or the workers running
+			server.close();
+			for (Process process : processes) if (process.isAlive()) process.destroy();
+		}
+		final long endTime = System.currentTimeMillis();
+		System.out.println("Run Time: " + ((double)endTime - startTime) + " ms");
+
+		return network.toNetwork(values);
+	}
+
+	/*
+	 * This method starts the given number of worker JVMs on this machine, with the same classpath
+	 * as this one, each connecting to the server. If one fails to start, the ones already started
+	 * are destroyed.
+	 */
+	public static List<Process> startWorkers(ServerSocket server, int workers) throws Exception {
+		String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+		List<Process> processes = new ArrayList<Process>();
+		try {
+			for (int i = 0; i < workers; i++) {
+				ProcessBuilder builder = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+						PageRankWorker.class.getName(), server.getInetAddress().getHostAddress(),
+						Integer.toString(server.getLocalPort()));
+				processes.add(builder.inheritIO().start());
+			}
+		} catch (Exception ex) {
+			for (Process process : processes) process.destroy();
+			throw ex;
+		}
+		return processes;
+	}
+
+	/*
+	 * This method runs the iterative version of the pagerank algorithm with a damping factor of .85
+	 * on a compact network, split between the given number of workers, which connect to the server.
+	 * The workers may be on this machine or others. The network is split into blocks of consecutive
+	 * nodes with about the same number of nodes and edges, and each worker is sent the outgoing
+	 * edges of its block. Each iteration the coordinator sends every worker the sum of the sinks'
+	 * values, and waits for every worker to report its largest change and the new sum of its sinks'
+	 * values, which is the barrier between iterations. A server without a timeout is given
+	 * ACCEPT_TIMEOUT, so a worker that never connects fails the run instead of hanging it, and
+	 * the workers' sockets are closed however the run ends. It returns the values normalized
+	 * over the variance.
+	 */
+	public static double[] pageRankDistributed(CompactNetwork network, double variance, ServerSocket server,
+			int workers) throws Exception {
+
+		// This is the damping factor for the network
+		double d = .85;
+
+		network.requireDirected("Distributed pagerank");
+		int size = network.size();
+		int[] blocks = splitBlocks(network, workers);
+
+		// Accept the workers, and read the address each one listens on for the other workers
+		Socket[] sockets = new Socket[workers];
+		DataInputStream[] in = new DataInputStream[workers];
+		DataOutputStream[] out = new DataOutputStream[workers];
+		String[] hosts = new String[workers];
+		int[] ports = new int[workers];
+		if (server.getSoTimeout() == 0) server.setSoTimeout(ACCEPT_TIMEOUT);
+		try {
+			for (int i = 0; i < workers; i++) {
+				sockets[i] = server.accept();
+				sockets[i].setTcpNoDelay(true);
+				in[i] = new DataInputStream(new BufferedInputStream(sockets[i].getInputStream()));
+				out[i] = new DataOutputStream(new BufferedOutputStream(sockets[i].getOutputStream(), 1 << 16));
+				hosts[i] = in[i].readUTF();
+				ports[i] = in[i].readInt();
+			}
+			for (int i = 0; i < workers; i++) sendSetup(network, out[i], i, workers, blocks, hosts, ports, d);
+
+			// Sum the sinks' starting values, then run iterations until the largest change is within the variance
+			double sinkSum = 0;
+			for (int i = 0; i < workers; i++) sinkSum += in[i].readDouble();
+			double maxChange = Double.MAX_VALUE;
+			while (maxChange > variance) {
+				for (int i = 0; i < workers; i++) {
+					out[i].writeByte(PageRankWorker.STEP);
+					out[i].writeDouble(sinkSum);
+					out[i].flush();
+				}
+				maxChange = 0;
+				sinkSum = 0;
+				for (int i = 0; i < workers; i++) {
+					maxChange = Math.max(maxChange, in[i].readDouble());
+					sinkSum += in[i].readDouble();
+				}
+			}
+
+			// Collect the values from each worker, then normalize all values over the variance
+			double[] future = new double[size];
+			for (int i = 0; i < workers; i++) {
+				out[i].writeByte(PageRankWorker.FINISH);
+				out[i].flush();
+			}
+			for (int i = 0; i < workers; i++) {
+				byte[] bytes = new byte[8 * (blocks[i + 1] - blocks[i])];
+				in[i].readFully(bytes);
+				ByteBuffer.wrap(bytes).asDoubleBuffer().get(future, blocks[i], blocks[i + 1] - blocks[i]);
+			}
+			for (int i = 0; i < size; i++) future[i] = Math.ceil(future[i]/variance)*variance;
+			return future;
+		} finally {
+			for (Socket socket : sockets) if (socket != null) socket.close();
+		}
+	}
+
+	/*
+	 * This method splits the nodes into the given number of blocks of consecutive nodes, each
+	 * with about the same number of nodes plus edges. It returns the first node of each block,
+	 * followed by the size of the network.
+	 */
+	public static int[] splitBlocks(CompactNetwork network, int workers) {
+		int size = network.size();
+		int[] offsets = network.getOffsets();
+		long total = (long) size + network.getEdgeCount();
+		int[] blocks = new int[workers + 1];
+		int node = 0;
+		for (int i = 1; i < workers; i++) {
+			long goal = total * i / workers;
+			while (node < size && node + (long) offsets[node] < goal) node++;
+			blocks[i] = node;
+		}
+		blocks[workers] = size;
+		return blocks;
+	}
+
+	/*
+	 * This method sends a worker its id, the blocks of all workers, the addresses of the other
+	 * workers, and the outgoing edges (and their weights, if there are any) of its block. An edge
+	 * with repeats counted is sent weighted by its count.
+	 */
+	public static void sendSetup(CompactNetwork network, DataOutputStream out, int id, int workers, int[] blocks,
+			String[] hosts, int[] ports, double d) throws Exception {
+		int[] offsets = network.getOffsets();
+		int[] targets = network.getTargets();
+		double[] weights = network.getWeights();
+		int[] multiplicities = network.getMultiplicities();
+		out.writeInt(id);
+		out.writeInt(workers);
+		out.writeInt(network.size());
+		out.writeDouble(d);
+		for (int block : blocks) out.writeInt(block);
+		for (int i = 0; i < workers; i++) {
+			out.writeUTF(hosts[i]);
+			out.writeInt(ports[i]);
+		}
+		int from = offsets[blocks[id]], to = offsets[blocks[id + 1]];
+		for (int i = blocks[id]; i <= blocks[id + 1]; i++) out.writeInt(offsets[i] - from);
+		for (int j = from; j < to; j++) out.writeInt(targets[j]);
+		out.writeBoolean(weights != null || multiplicities != null);
+		if (weights != null) for (int j = from; j < to; j++) out.writeDouble(weights[j]);
+		else if (multiplicities != null) for (int j = from; j < to; j++) out.writeDouble(multiplicities[j]);
+		out.flush();
+	}
+
+}
@@ -0,0 +1,404 @@
+package pageRankAlgorithm;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Scanner;
+
+public class EngineSelector {
+
+	// The engines from fastest to slowest on the test networks, including building the network
+	public static final String[] ENGINES = {"Weighted", "Compressed", "Off-Heap", "Iterative", "Parallelized", "Matrix", "BigDecimal"};
+
+	// The scan counts names exactly in a table of up to 2^24 slots, and estimates them past that
+	private static final int EXACT_SLOTS = 1 << 24;
+	// Each sketch has 2^14 registers, for a standard error of under 1 percent
+	private static final int SKETCH_BITS = 14;
+
+	private long nodes;
+	private long edges;
+	private long sinks;
+	private long nameChars;
+
+	/*
+	 * Input: Any number of filepaths linking to .csv files, optionally followed by a space and an
+	 * off-heap budget in megabytes
+	 * Output: The size of the network, the memory each engine is estimated to need, and the
+	 * runtime for the engine chosen to run it
+	 * The following program picks the fastest engine that fits in memory for the given .csv files.
+	 * The heap budget is the heap the JVM was started with, so -Xmx changes which engines fit.
+	 */
+	public static void main(String[] args) throws Exception {
+
+		System.out.println("Input Filenames: ");
+		// Read in input file names
+		Scanner sc = new Scanner(System.in);
+		while (sc.hasNextLine()) {
+			// Only valid file names will be accepted, otherwise an exception will be thrown
+			String[] line = sc.nextLine().trim().split(" ");
+			System.out.println("\n" + line[0]);
+			if (!line[0].equals("")) {
+				// The off-heap budget defaults to the heap's, which is also the JVM's default limit on direct buffers
+				long heapBudget = Runtime.getRuntime().maxMemory();
+				long offHeapBudget = line.length > 1 ? Long.parseLong(line[1]) << 20 : heapBudget;
+				// Run the fastest pagerank algorithm that fits on the file
+				runSelected(line[0], heapBudget, offHeapBudget);
+			}
+		} sc.close();
+
+	}
+
+	/*
+	 * This method scans the given file, prints the estimated memory of every engine, and runs
+	 * the first engine in ENGINES that fits in both budgets. It throws an IllegalArgumentException
+	 * before building anything if no engine fits.
+	 */
+	public static List<Node> runSelected(String fileName, long heapBudget, long offHeapBudget) throws Exception {
+		EngineSelector selector = scan(fileName);
+		System.out.println("Nodes: " + selector.nodes + ", Edges: " + selector.edges + ", Sinks: " + selector.sinks);
+		System.out.println("Budget: " + (heapBudget >> 20) + " MB heap, " + (offHeapBudget >> 20) + " MB off-heap");
+		for (String engine : ENGINES) {
+			System.out.println(engine + ": " + (selector.estimateHeap(engine) >> 20) + " MB heap, "
+					+ (selector.estimateOffHeap(engine) >> 20) + " MB off-heap");
+		}
+
+		String engine = selector.select(heapBudget, offHeapBudget);
+		if (engine == null) throw new IllegalArgumentException("No engine fits in the memory budget: " + fileName);
+		System.out.println("Selected: " + engine);
+		return run(engine, fileName);
+	}
+
+	/*
+	 * This method counts the nodes, edges and sinks of the network in the given file without
+	 * building it, counting the names exactly up to 2^23 nodes and estimating them past that.
+	 */
+	public static EngineSelector scan(String fileName) throws Exception {
+		return scan(fileName, EXACT_SLOTS);
+	}
+
+	/*
+	 * This method counts the nodes, edges and sinks of the network in the given file without
+	 * building it. The node names are not kept: each name is hashed to 64 bits and only the
+	 * hash goes in an open addressing table, along with whether the node has an outgoing edge,
+	 * so the scan takes 9 bytes per node. The chance of two names sharing a hash is negligible.
+	 * The table stops growing at the given number of slots, which must be a power of two. If
+	 * there are more names than fit in half of it, the hashes are moved into two HyperLogLog
+	 * sketches, one of every name and one of the names with an outgoing edge, which estimate the
+	 * nodes and the sinks in a fixed 32 KB. The sketched counts are rounded up by two standard
+	 * errors, and the characters of the names are estimated from their average length.
+	 */
+	public static EngineSelector scan(String fileName, int maxSlots) throws Exception {
+		// A BufferedReader to read in the .csv file
+		BufferedReader br = new BufferedReader(new FileReader(fileName));
+
+		String line;
+		long[] hashes = new long[Math.min(1 << 10, maxSlots)];
+		boolean[] hasOut = new boolean[hashes.length];
+		// The registers of the sketches, once the table is full
+		byte[] allNames = null, sources = null;
+		long nodes = 0, edges = 0, nameChars = 0, names = 0, namesChars = 0;
+
+		// For each line in the .csv file, count an edge from the first node to the second
+		while ((line = br.readLine()) != null) {
+			int first = line.indexOf(',');
+			int second = line.indexOf(',', first + 1);
+			int third = line.indexOf(',', second + 1);
+			if (third < 0) third = line.length();
+			for (int side = 0; side < 2; side++) {
+				int start = side == 0 ? 0 : second + 1, end = side == 0 ? first : third;
+				long hash = hash(line, start, end);
+				names++;
+				namesChars += end - start;
+				if (allNames != null) {
+					sketch(allNames, hash);
+					if (side == 0) sketch(sources, hash);
+					continue;
+				}
+				int slot = findSlot(hashes, hash);
+				if (hashes[slot] == 0) {
+					hashes[slot] = hash;
+					nameChars += end - start;
+					// Keep the table at most half full, so a slot is found in a few probes
+					if (++nodes * 2 > hashes.length) {
+						if (hashes.length >= maxSlots) {
+							// The table cannot grow any further, so sketch every name seen so far instead
+							allNames = new byte[1 << SKETCH_BITS];
+							sources = new byte[1 << SKETCH_BITS];
+							for (int i = 0; i < hashes.length; i++) {
+								if (hashes[i] == 0) continue;
+								sketch(allNames, hashes[i]);
+								if (hasOut[i] || (side == 0 && hashes[i] == hash)) sketch(sources, hashes[i]);
+							}
+							hashes = null;
+							hasOut = null;
+							continue;
+						}
+						boolean[] grownOut = new boolean[hashes.length * 2];
+						hashes = rehash(hashes, hasOut, grownOut);
+						hasOut = grownOut;
+						slot = findSlot(hashes, hash);
+					}
+				}
+				if (side == 0) hasOut[slot] = true;
+			}
+			edges++;
+		} br.close();
+
+		if (allNames != null) {
+			// Round the nodes up and the nodes with outgoing edges down, so neither the nodes nor the sinks are underestimated
+			double error = 2 * 1.04 / Math.sqrt(1 << SKETCH_BITS);
+			nodes = (long) Math.ceil(countSketch(allNames) * (1 + error));
+			long hasOutgoing = (long) (countSketch(sources) * (1 - error));
+			long sinks = Math.max(0, nodes - hasOutgoing);
+			nameChars = (long) Math.ceil(nodes * (double) namesChars / names);
+			return new EngineSelector(nodes, edges, sinks, nameChars);
+		}
+
+		long sinks = 0;
+		for (int i = 0; i < hashes.length; i++) if (hashes[i] != 0 && !hasOut[i]) sinks++;
+		return new EngineSelector(nodes, edges, sinks, nameChars);
+	}
+
+	/*
+	 * This method hashes the characters from start to end of the line with 64 bit FNV-1a. Zero
+	 * marks an empty slot, so it is never returned.
+	 */
+	public static long hash(String line, int start, int end) {
+		long hash = 0xcbf29ce484222325L;
+		for (int i = start; i < end; i++) {
+			hash ^= line.charAt(i);
+			hash *= 0x100000001b3L;
+		} return hash == 0 ? 1 : hash;
+	}
+
+	/*
+	 * This method adds a hash to a HyperLogLog sketch. FNV-1a does not spread its bits well
+	 * enough for the sketch, so the hash is mixed first. The top bits pick a register, which
+	 * keeps the most leading zeros seen in the rest of the bits, plus one.
+	 */
+	private static void sketch(byte[] registers, long hash) {
+		hash ^= hash >>> 33;
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= hash >>> 33;
+		hash *= 0xc4ceb9fe1a85ec53L;
+		hash ^= hash >>> 33;
+		int register = (int) (hash >>> (64 - SKETCH_BITS));
+		byte rank = (byte) (Long.numberOfLeadingZeros((hash << SKETCH_BITS) | (1L << (SKETCH_BITS - 1))) + 1);
+		if (rank > registers[register]) registers[register] = rank;
+	}
+
+	/*
+	 * This method estimates the number of distinct hashes added to a HyperLogLog sketch, using
+	 * linear counting while many of the registers are still empty.
+	 */
+	private static double countSketch(byte[] registers) {
+		int m = registers.length, empty = 0;
+		double sum = 0;
+		for (byte rank : registers) {
+			sum += Math.scalb(1.0, -rank);
+			if (rank == 0) empty++;
+		}
+		double estimate = 0.7213/(1 + 1.079/m) * m * m / sum;
+		if (estimate <= 2.5 * m && empty > 0) estimate = m * Math.log(m/(double) empty);
+		return estimate;
+	}
+
+	/*
+	 * This method returns the slot holding the hash, or the empty slot where it belongs.
+	 */
+	private static int findSlot(long[] hashes, long hash) {
+		int mask = hashes.length - 1;
+		int slot = (int) (hash ^ (hash >>> 32)) & mask;
+		while (hashes[slot] != 0 && hashes[slot] != hash) slot = (slot + 1) & mask;
+		return slot;
+	}
+
+	/*
+	 * This method moves the hashes and their outgoing edge flags into a table twice the size.
+	 */
+	private static long[] rehash(long[] hashes, boolean[] hasOut, boolean[] grownOut) {
+		long[] grown = new long[hashes.length * 2];
+		for (int i = 0; i < hashes.length; i++) {
+			if (hashes[i] == 0) continue;
+			int slot = findSlot(grown, hashes[i]);
+			grown[slot] = hashes[i];
+			grownOut[slot] = hasOut[i];
+		} return grown;
+	}
+
+	/*
+	 * The EngineSelector class takes in the size of a network, as counted by scan, and estimates
+	 * how much memory each pagerank engine needs for it at its peak. The estimates assume a
+	 * 64 bit JVM with compressed references, where an object has a 12 byte header and is padded
+	 * to 8 bytes, an array has a 16 byte header, and each character of a name takes 2 bytes.
+	 * They are meant to catch the engines that will not fit long before they run out of memory,
+	 * not to be exact, so they round up.
+	 */
+	public EngineSelector(long nodes, long edges, long sinks, long nameChars) {
+		this.nodes = nodes;
+		this.edges = edges;
+		this.sinks = sinks;
+		this.nameChars = nameChars;
+	}
+
+	/*
+	 * This method returns the first engine in ENGINES whose estimates fit in both budgets, or
+	 * null if none do.
+	 */
+	public String select(long heapBudget, long offHeapBudget) {
+		for (String engine : ENGINES) {
+			if (estimateHeap(engine) <= heapBudget && estimateOffHeap(engine) <= offHeapBudget) return engine;
+		} return null;
+	}
+
+	/*
+	 * This method estimates the bytes of heap the given engine needs at its peak. The BigDecimal
+	 * and matrix estimates grow with the square of the nodes, so the arithmetic is checked, and
+	 * an engine whose estimate overflows a long is estimated at Long.MAX_VALUE.
+	 */
+	public long estimateHeap(String engine) {
+		try {
+			return estimateHeapExact(engine);
+		} catch (ArithmeticException e) {
+			return Long.MAX_VALUE;
+		}
+	}
+
+	/*
+	 * This method estimates the bytes of heap the given engine needs at its peak, throwing an
+	 * ArithmeticException if the estimate overflows.
+	 */
+	private long estimateHeapExact(String engine) {
+		long n = this.nodes, e = this.edges;
+		// Every engine keeps the names: a String, its character array, and a reference to it
+		long names = sum(product(n, 24 + 16 + 4), product(2, this.nameChars));
+		// The name to index map and the growing edge arrays used while building a compact network
+		long building = sum(product(n, 32 + 16 + 8), product(2 * 8, e));
+		// The array based engines return their values in a list of nodes, each with an empty list of edges
+		long results = sum(product(n, 40 + 24 + 4), product(8, n));
+		// Every engine indexes the nodes by ints, and a compact network holds its edges in an int array
+		if (n > Integer.MAX_VALUE - 8 || (engine.equals("Weighted") && e > Integer.MAX_VALUE - 8)) return Long.MAX_VALUE;
+		switch (engine) {
+		case "Weighted":
+			// The offsets and targets, then three arrays of values while solving, or the results
+			return sum(names, Math.max(building, sum(product(4, sum(n, e)), Math.max(product(3 * 8, n), results))));
+		case "Off-Heap":
+			// The name to index map and the in and out degrees while building, and the values are off the heap
+			return sum(names, Math.max(sum(product(n, 32 + 16 + 8), product(2 * 4, n)), results));
+		case "Compressed": {
+			// A gap is less than the number of nodes, so it takes at most one byte per seven bits of it
+			long gapBytes = Math.max(1, (64 - Long.numberOfLeadingZeros(n) + 6) / 7);
+			// The compressed edges, with a count per node, and the copy made when a page grows or is trimmed
+			long pages = product(gapBytes, sum(n, e));
+			pages = sum(pages, Math.min(pages, 1L << 30));
+			// The edges into one partition, taken to be twice the average, with its offsets and positions
+			long partitions = (n >> StreamingNetwork.PARTITION_BITS) + 1;
+			long partition = Math.min(e, product(2, e / partitions + 1));
+			if (partition > Integer.MAX_VALUE - 8) return Long.MAX_VALUE;
+			partition = sum(product(4, partition), product(2 * 4, Math.min(n, 1L << StreamingNetwork.PARTITION_BITS) + 1));
+			// The name to index map and the out-degrees while streaming the file into partitions
+			long streaming = sum(product(n, 32 + 16 + 8), product(2 * 4, n));
+			// The out-degrees and list positions, the pages and a partition while compressing
+			long compressing = sum(product(4 + 8, n), pages, partition);
+			// The out-degrees, list positions and pages, then four arrays of values and the result while solving, or the results
+			long solving = sum(product(4 + 8, n), pages, Math.max(product(5 * 8, n), results));
+			return sum(names, Math.max(streaming, Math.max(compressing, solving)));
+		}
+		case "Iterative":
+			return sum(names, nodeList());
+		case "Parallelized":
+			// An atomic node adds two atomic references to boxed doubles, and keeps its edges in a list of its own
+			return sum(names, nodeList(), product(n, 2 * 16 + 2 * 16 + 24 + 16 + 4));
+		case "Matrix":
+			// The N matrix and its transpose, each an array of n rows of n doubles
+			return sum(names, nodeList(), product(2, n, sum(16 + 4, product(8, n))));
+		case "BigDecimal":
+			// Both matrices hold references to the same BigDecimals, each with a BigInteger of its digits
+			return sum(names, nodeList(), product(2, n, sum(16 + 4, product(4, n))), product(n, n, 40 + 40 + 40));
+		default:
+			throw new IllegalArgumentException("Unknown engine: " + engine);
+		}
+	}
+
+	/*
+	 * This method estimates the bytes of heap a list of nodes takes, for the list based engines,
+	 * which give every sink an edge to every node.
+	 */
+	private long nodeList() {
+		long listEdges = sum(this.edges, product(this.sinks, this.nodes));
+		// A Node and its list of edges, with the list's array 1.5 times larger than needed at worst
+		return sum(product(this.nodes, 40 + 24 + 16 + 4), product(6, listEdges));
+	}
+
+	/*
+	 * This method estimates the bytes outside the heap the given engine needs, or Long.MAX_VALUE
+	 * if the estimate overflows.
+	 */
+	public long estimateOffHeap(String engine) {
+		long n = this.nodes, e = this.edges;
+		try {
+			// The degrees, offsets and sources of the off-heap network, and three buffers of values
+			if (engine.equals("Off-Heap")) return sum(product(4, n), product(8, n + 1), product(4, e), product(3 * 8, n));
+			return 0;
+		} catch (ArithmeticException exception) {
+			return Long.MAX_VALUE;
+		}
+	}
+
+	/*
+	 * This method adds the terms, throwing an ArithmeticException if the sum overflows.
+	 */
+	private static long sum(long... terms) {
+		long sum = 0;
+		for (long term : terms) sum = Math.addExact(sum, term);
+		return sum;
+	}
+
+	/*
+	 * This method multiplies the factors, throwing an ArithmeticException if the product overflows.
+	 */
+	private static long product(long... factors) {
+		long product = 1;
+		for (long factor : factors) product = Math.multiplyExact(product, factor);
+		return product;
+	}
+
+	/*
+	 * This method runs the given engine on the file.
+	 */
+	public static List<Node> run(String engine, String fileName) throws Exception {
+		switch (engine) {
+		case "Weighted": return WeightedPageRank.runWeighted(fileName, -1);
+		case "Off-Heap": return OffHeapPageRank.runIterative(fileName);
+		case "Compressed": return CompressedPageRank.runCompressed(fileName);
+		case "Iterative": return PageRank.runIterative(fileName);
+		case "Parallelized": return new ArrayList<Node>(PartitionPageRank.runParallelized(fileName));
+		case "Matrix": return PageRank.runMatrix(fileName);
+		case "BigDecimal": return PageRankBigDecimal.runMatrix(fileName);
+		default: throw new IllegalArgumentException("Unknown engine: " + engine);
+		}
+	}
+
+	/*
+	 * Gets the number of nodes.
+	 */
+	public long getNodes() {
+		return this.nodes;
+	}
+
+	/*
+	 * Gets the number of edges.
+	 */
+	public long getEdges() {
+		return this.edges;
+	}
+
+	/*
+	 * Gets the number of sinks.
+	 */
+	public long getSinks() {
+		return this.sinks;
+	}
+
+}
@@ -0,0 +1,134 @@
+package pageRankAlgorithm;
+
+import java.util.List;
+import java.util.Scanner;
+
+public class FloatPageRank {
+
+	/*
+	 * Input: Any number of filepaths linking to .csv files
+	 * Output: The runtime for the float pagerank algorithm and its maximum deviation
+	 * from the double iterative pagerank algorithm
+	 * The following program runs the float iterative pagerank algorithm on given .csv files.
+	 */
+	public static void main(String[] args) throws Exception {
+
+		System.out.println("Input Filenames: ");
+		// Read in input file names
+		Scanner sc = new Scanner(System.in);
+		while (sc.hasNextLine()) {
+			// Only valid file names will be accepted, otherwise an exception will be thrown
+			String fileName = sc.nextLine().trim();
+			System.out.println("\n" + fileName);
+			if (!fileName.equals("")) {
+				// Run the pagerank algorithm on the files
+				runFloat(fileName);
+			}
+		} sc.close();
+
+	}
+
+	/*
+	 * This method runs the float iterative page rank algorithm on a given file. It prints
+	 * out the running time of the algorithm in milliseconds, and the maximum deviation of
+	 * its values from those of PageRank.pageRankIterativeScaled on the same file.
+	 */
+	public static List<Node> runFloat(String fileName) throws Exception {
+		// Build the network on which the pagerank algorithm will be run
+		CompactNetwork network = CompactNetwork.buildNetwork(fileName);
+		// Calculate the variance which will determine when the algorithm converges
+		double variance = PageRank.calculateVariance(network.size());
+
+		System.out.println("Float:");
+		final long startTime = System.currentTimeMillis();
+		// Run the pagerank algorithm for the network using the calculated variance
+		double[] values = pageRankFloat(network, variance);
+		final long endTime = System.currentTimeMillis();
+		System.out.println("Run Time: " + ((double)endTime - startTime) + " ms");
+
+		// Compare against the double precision iterative algorithm
+		List<Node> result = network.toNetwork(values);
+		System.out.println("Max Deviation: " + PageRank.maxDeviation(result, PageRank.runIterative(fileName)));
+
+		return result;
+	}
+
+	/*
+	 * This method runs the iterative version of the pagerank algorithm with a damping factor
+	 * of .85, storing the values in float arrays to halve the memory read and written each
+	 * iteration. Each node pulls its new value from its incoming edges, and every sum is
+	 * Kahan compensated so the float rounding errors do not build up over large networks.
+	 * It returns the values normalized over the variance.
+	 */
+	public static double[] pageRankFloat(CompactNetwork network, double variance) {
+
+		// This is the damping factor for the network
+		float d = .85f;
+
+		network.requireDirected("Float pagerank");
+		network.requireUnweighted("Float pagerank");
+		int size = network.size();
+		CompactNetwork incoming = network.reverse();
+		int[] offsets = incoming.getOffsets();
+		int[] sources = incoming.getTargets();
+
+		// The current values, future values and the share of its value each node passes on
+		float[] values = new float[size];
+		float[] future = new float[size];
+		float[] shares = new float[size];
+		for (int i = 0; i < size; i++) future[i] = 1f / size;
+
+		// Run generate the new values for each node until convergence
+		while (checkConverge(values, future, variance)) {
+			// Swap the future values into the current values
+			float[] temp = values;
+			values = future;
+			future = temp;
+
+			// Calculate each node's share, and sum the value held by the sinks
+			float sinkSum = 0, sinkError = 0;
+			for (int i = 0; i < size; i++) {
+				int degree = network.getOutDegree(i);
+				if (degree == 0) {
+					float y = values[i] - sinkError;
+					float t = sinkSum + y;
+					sinkError = (t - sinkSum) - y;
+					sinkSum = t;
+					shares[i] = 0;
+				} else shares[i] = values[i] / degree;
+			}
+
+			// Every node gets 1 minus the damping factor, and its part of the sinks' value
+			float base = (1 - d) / size + d * sinkSum / size;
+			for (int i = 0; i < size; i++) {
+				float sum = 0, error = 0;
+				for (int j = offsets[i]; j < offsets[i + 1]; j++) {
+					float y = shares[sources[j]] - error;
+					float t = sum + y;
+					error = (t - sum) - y;
+					sum = t;
+				}
+				future[i] = base + d * sum;
+			}
+		}
+
+		// Do one final step and normalize all values over the variance
+		double[] result = new double[size];
+		for (int i = 0; i < size; i++) result[i] = Math.ceil(future[i] / variance) * variance;
+		return result;
+	}
+
+	/*
+	 * This method checks for convergence. If every value minus its future value
+	 * is less than the variance, then the network has converged. A float cannot
+	 * resolve differences much smaller than its own precision, so large values
+	 * only need to settle to within a couple of units in the last place.
+	 */
+	public static boolean checkConverge(float[] values, float[] future, double variance) {
+		for (int i = 0; i < values.length; i++) {
+			double tolerance = Math.max(variance, 2 * Math.ulp(future[i]));
+			if (Math.abs(values[i] - future[i]) > tolerance) return true;
+		} return false;
+	}
+
+}
@@ -0,0 +1,149 @@
+package pageRankAlgorithm;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+public class GraphCache {
+
+	private long budget;
+	private long used;
+	private LinkedHashMap<String, CompletableFuture<RankedNetwork>> entries;
+	private Map<String, Long> sizes;
+	private long loads;
+
+	/*
+	 * The GraphCache class keeps solved networks in memory by file name, up to a budget of
+	 * estimated bytes. The entries are kept in order of last use, and the least recently used
+	 * networks are evicted once the budget is exceeded. Concurrent requests for a network that
+	 * is still loading wait on the same load instead of loading it again.
+	 */
+	public GraphCache(long budget) {
+		this.budget = budget;
+		this.used = 0;
+		this.entries = new LinkedHashMap<String, CompletableFuture<RankedNetwork>>(16, .75f, true);
+		this.sizes = new HashMap<String, Long>();
+		this.loads = 0;
+	}
+
+	/*
+	 * This method returns the solved network for the file, loading and solving it if it is not cached.
+	 */
+	public RankedNetwork get(String fileName) throws Exception {
+		CompletableFuture<RankedNetwork> entry;
+		boolean load = false;
+		synchronized (this) {
+			entry = entries.get(fileName);
+			if (entry == null) {
+				entry = new CompletableFuture<RankedNetwork>();
+				entries.put(fileName, entry);
+				load = true;
+			}
+		}
+		if (load) load(fileName, entry);
+		return await(entry);
+	}
+
+	/*
+	 * This method loads and solves the file again, replacing the cached network.
+	 */
+	public RankedNetwork reload(String fileName) throws Exception {
+		CompletableFuture<RankedNetwork> entry = new CompletableFuture<RankedNetwork>();
+		synchronized (this) {
+			remove(fileName);
+			entries.put(fileName, entry);
+		}
+		load(fileName, entry);
+		return await(entry);
+	}
+
+	/*
+	 * This method waits for the entry to load, rethrowing the exception it failed with.
+	 */
+	private static RankedNetwork await(CompletableFuture<RankedNetwork> entry) throws Exception {
+		try {
+			return entry.join();
+		} catch (CompletionException ex) {
+			if (ex.getCause() instanceof Exception) throw (Exception) ex.getCause();
+			if (ex.getCause() instanceof Error) throw (Error) ex.getCause();
+			throw ex;
+		}
+	}
+
+	/*
+	 * This method loads and solves the file into the entry, then evicts the least recently used
+	 * networks until the cache is within its budget. A failed load is not kept in the cache, and
+	 * the entry is completed even if the load throws an Error, such as running out of memory,
+	 * so requests waiting on it are not left blocked.
+	 */
+	private void load(String fileName, CompletableFuture<RankedNetwork> entry) {
+		synchronized (this) {
+			loads++;
+		}
+		try {
+			RankedNetwork network = RankedNetwork.solve(fileName);
+			long bytes = network.estimateBytes();
+			synchronized (this) {
+				if (entries.get(fileName) == entry) {
+					sizes.put(fileName, bytes);
+					used += bytes;
+					evict(fileName);
+				}
+			}
+			entry.complete(network);
+		} catch (Throwable ex) {
+			synchronized (this) {
+				if (entries.get(fileName) == entry) entries.remove(fileName);
+			}
+			entry.completeExceptionally(ex);
+		}
+	}
+
+	/*
+	 * This method evicts the least recently used loaded networks, other than the one just
+	 * loaded, until the cache is within its budget.
+	 */
+	private void evict(String loaded) {
+		Iterator<Map.Entry<String, CompletableFuture<RankedNetwork>>> iterator = entries.entrySet().iterator();
+		while (used > budget && iterator.hasNext()) {
+			String fileName = iterator.next().getKey();
+			if (fileName.equals(loaded) || !sizes.containsKey(fileName)) continue;
+			used -= sizes.remove(fileName);
+			iterator.remove();
+		}
+	}
+
+	/*
+	 * This method removes a network from the cache.
+	 */
+	private void remove(String fileName) {
+		entries.remove(fileName);
+		Long bytes = sizes.remove(fileName);
+		if (bytes != null) used -= bytes;
+	}
+
+	/*
+	 * Gets the number of cached networks.
+	 */
+	public synchronized int size() {
+		return this.entries.size();
+	}
+
+	/*
+	 * Gets the number of networks loaded since the cache was created.
+	 */
+	public synchronized long getLoads() {
+		return this.loads;
+	}
+
+	/*
+	 * Gets the estimated bytes used by the cached networks.
+	 */
+	public synchronized long getUsed() {
+		return this.used;
+	}
+
+}
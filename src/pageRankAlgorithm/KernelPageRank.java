@@ -0,0 +1,186 @@
+package pageRankAlgorithm;
+
+import java.io.File;
+import java.util.List;
+import java.util.Scanner;
+import java.util.SplittableRandom;
+
+public class KernelPageRank {
+
+	// The sum of the kernels' results while timing them, kept so the JIT cannot remove the kernels
+	private static double checksum;
+
+	/*
+	 * Input: Any number of filepaths linking to .csv files, or "kernels" as an argument to only
+	 * time the kernels
+	 * Output: The time each array kernel takes with the JIT's default settings and with its loop
+	 * vectorization turned off, and the runtime of the pagerank algorithm using the kernels
+	 * The following program times the same array kernels in this JVM and in a child JVM started
+	 * with -XX:-UseSuperWord, which stops the JIT from compiling loops into SIMD instructions, so
+	 * the difference is what the JIT's vectorization gains, not a comparison with separate scalar
+	 * code. It then runs the pagerank algorithm with the kernels on given .csv files and prints
+	 * the largest difference from the weighted algorithm, which adds the sinks' values in another
+	 * order and so can differ in the last bits.
+	 */
+	public static void main(String[] args) throws Exception {
+
+		if (args.length > 0 && args[0].equals("kernels")) {
+			benchmarkKernels(1 << 15, 20000);
+			return;
+		}
+		System.out.println("Default JIT:");
+		benchmarkKernels(1 << 15, 20000);
+		System.out.println("JIT with -XX:-UseSuperWord:");
+		String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+		new ProcessBuilder(java, "-XX:-UseSuperWord", "-cp", System.getProperty("java.class.path"),
+				KernelPageRank.class.getName(), "kernels").inheritIO().start().waitFor();
+
+		System.out.println("Input Filenames: ");
+		// Read in input file names
+		Scanner sc = new Scanner(System.in);
+		while (sc.hasNextLine()) {
+			// Only valid file names will be accepted, otherwise an exception will be thrown
+			String fileName = sc.nextLine().trim();
+			System.out.println("\n" + fileName);
+			if (!fileName.equals("")) {
+				// Run the pagerank algorithms on the files and compare their results
+				List<Node> kernels = runKernels(fileName);
+				List<Node> weighted = WeightedPageRank.runWeighted(fileName, -1);
+				System.out.println("Max Deviation: " + PageRank.maxDeviation(kernels, weighted));
+			}
+		} sc.close();
+
+	}
+
+	/*
+	 * This method runs the pagerank algorithm using the array kernels on a given file. It runs it
+	 * once to warm up the JIT, and then prints out the running time of the second run in milliseconds.
+	 */
+	public static List<Node> runKernels(String fileName) throws Exception {
+		// Build the network on which the pagerank algorithm will be run
+		CompactNetwork network = CompactNetwork.buildNetwork(fileName);
+		// Calculate the variance which will determine when the algorithm converges
+		double variance = PageRank.calculateVariance(network.size());
+		pageRankKernels(network, variance);
+
+		System.out.println("Kernels:");
+		final long startTime = System.nanoTime();
+		// Run the pagerank algorithm for the network using the calculated variance
+		double[] values = pageRankKernels(network, variance);
+		final long endTime = System.nanoTime();
+		System.out.println("Run Time: " + (endTime - startTime)/1e6 + " ms");
+
+		return network.toNetwork(values);
+	}
+
+	/*
+	 * This method runs the iterative version of the pagerank algorithm with a damping factor of
+	 * .85 on a compact network like pageRankWeighted, with every loop other than the one along
+	 * the edges done by the ArrayKernels. The sinks' values are summed with four separate sums,
+	 * so the results can differ from pageRankWeighted's in the last bits. It returns the values
+	 * normalized over the variance.
+	 */
+	public static double[] pageRankKernels(CompactNetwork network, double variance) {
+
+		// This is the damping factor for the network
+		double d = .85;
+
+		network.requireDirected("Kernel pagerank");
+		network.requireUnweighted("Kernel pagerank");
+		int size = network.size();
+		int[] offsets = network.getOffsets();
+		int[] targets = network.getTargets();
+
+		// The damping factor over each node's number of outgoing edges, and the list of sinks
+		double[] scales = new double[size];
+		int sinkCount = 0;
+		for (int i = 0; i < size; i++) {
+			int degree = offsets[i + 1] - offsets[i];
+			scales[i] = degree == 0 ? 0 : d/degree;
+			if (degree == 0) sinkCount++;
+		}
+		int[] sinks = new int[sinkCount];
+		for (int i = 0, s = 0; i < size; i++) if (scales[i] == 0) sinks[s++] = i;
+
+		double[] values = new double[size];
+		double[] future = new double[size];
+		double[] shares = new double[size];
+		ArrayKernels.fill(future, 1/(double) size);
+
+		// Run generate the new values for each node until convergence
+		while (ArrayKernels.maxDifference(values, future) > variance) {
+			double[] temp = values;
+			values = future;
+			future = temp;
+
+			// Every node gets 1 minus the damping factor, and its part of the sinks' value
+			double base = (1-d)/size + d*ArrayKernels.sumAt(values, sinks)/size;
+			ArrayKernels.fill(future, base);
+			ArrayKernels.multiply(scales, values, shares);
+
+			// Distribute each node's damped value along its outgoing edges
+			for (int i = 0; i < size; i++) {
+				double share = shares[i];
+				for (int j = offsets[i]; j < offsets[i + 1]; j++) future[targets[j]] += share;
+			}
+		}
+
+		// Do one final step and normalize all values over the variance
+		ArrayKernels.normalize(future, variance);
+		return future;
+	}
+
+	/*
+	 * This method times each kernel on arrays of the given size, running it the given number of
+	 * times after every kernel has been warmed up the same number of times. It prints the time
+	 * per run and per element.
+	 */
+	public static void benchmarkKernels(int size, int runs) {
+		double[] a = new double[size];
+		double[] b = new double[size];
+		double[] result = new double[size];
+		int[] indices = new int[size/8];
+		SplittableRandom random = new SplittableRandom(1);
+		for (int i = 0; i < size; i++) {
+			a[i] = random.nextDouble();
+			b[i] = random.nextDouble();
+		}
+		for (int i = 0; i < indices.length; i++) indices[i] = random.nextInt(size);
+
+		// Each kernel is numbered, and the sum of its results is stored so the JIT cannot remove it
+		String[] names = {"Residual", "Sum", "Sink Sum", "Teleport", "Shares", "Scale", "Normalize"};
+		double check = 0;
+		// Warm up every kernel before timing any of them
+		for (int run = 0; run < runs; run++) {
+			for (int kernel = 0; kernel < names.length; kernel++) check += runKernel(kernel, a, b, result, indices);
+		}
+		for (int kernel = 0; kernel < names.length; kernel++) {
+			final long startTime = System.nanoTime();
+			for (int run = 0; run < runs; run++) check += runKernel(kernel, a, b, result, indices);
+			double time = (System.nanoTime() - startTime)/(double) runs;
+			System.out.printf("%s: %.1f us, %.3f ns per element%n", names[kernel], time/1e3, time/size);
+		}
+		checksum += check;
+	}
+
+	/*
+	 * This method runs the numbered kernel once, and returns a value from its result.
+	 */
+	public static double runKernel(int kernel, double[] a, double[] b, double[] result, int[] indices) {
+		switch (kernel) {
+		case 0: return ArrayKernels.maxDifference(a, b);
+		case 1: return ArrayKernels.sum(a);
+		case 2: return ArrayKernels.sumAt(a, indices);
+		case 3: ArrayKernels.fill(result, a[0]); break;
+		case 4: ArrayKernels.multiply(a, b, result); break;
+		case 5:
+			System.arraycopy(a, 0, result, 0, a.length);
+			ArrayKernels.scale(result, 1.5);
+			break;
+		default:
+			System.arraycopy(a, 0, result, 0, a.length);
+			ArrayKernels.normalize(result, 1e-5);
+		} return result[result.length - 1];
+	}
+
+}
@@ -0,0 +1,76 @@
+package pageRankAlgorithm;
+
+import java.util.concurrent.RecursiveTask;
+
+public class MatrixMultiplyTask extends RecursiveTask<Double> {
+
+	private static final long serialVersionUID = 1L;
+
+	// The number of rows below which a task multiplies them itself instead of splitting
+	public static final int ROWS = 64;
+	// The number of columns multiplied at a time, so that part of the vector stays in the cache
+	public static final int TILE = 2048;
+
+	private double[] matrix;
+	private double[] vector;
+	private double[] result;
+	private int size;
+	private int start;
+	private int end;
+
+	/*
+	 * The MatrixMultiplyTask class multiplies the rows from start to end of a square, row-major
+	 * matrix of the given size by the vector, writing the products into the result. A task with
+	 * more than ROWS rows splits them in half and runs both halves in the fork/join pool. Each
+	 * task goes across its rows TILE columns at a time, so the same part of the vector is read for
+	 * every row before moving on, instead of the whole vector being read from memory for each row.
+	 * It returns the sum of its part of the result, which is added up in the same order however
+	 * many threads run the tasks.
+	 */
+	public MatrixMultiplyTask(double[] matrix, double[] vector, double[] result, int size, int start, int end) {
+		this.matrix = matrix;
+		this.vector = vector;
+		this.result = result;
+		this.size = size;
+		this.start = start;
+		this.end = end;
+	}
+
+	@Override
+	protected Double compute() {
+		if (end - start > ROWS) {
+			int middle = (start + end) >>> 1;
+			MatrixMultiplyTask left = new MatrixMultiplyTask(matrix, vector, result, size, start, middle);
+			MatrixMultiplyTask right = new MatrixMultiplyTask(matrix, vector, result, size, middle, end);
+			left.fork();
+			double sum = right.compute();
+			return left.join() + sum;
+		}
+		for (int i = start; i < end; i++) result[i] = 0;
+		for (int tile = 0; tile < size; tile += TILE) {
+			int tileEnd = Math.min(tile + TILE, size);
+			for (int i = start; i < end; i++) result[i] += dot(i * size, tile, tileEnd);
+		}
+		double sum = 0;
+		for (int i = start; i < end; i++) sum += result[i];
+		return sum;
+	}
+
+	/*
+	 * This method returns the dot product of the columns from start to end of the row beginning
+	 * at the given index with the same part of the vector, keeping four separate sums.
+	 */
+	private double dot(int row, int start, int end) {
+		double sum0 = 0, sum1 = 0, sum2 = 0, sum3 = 0;
+		int k = start;
+		for (; k + 3 < end; k += 4) {
+			sum0 += matrix[row + k]*vector[k];
+			sum1 += matrix[row + k + 1]*vector[k + 1];
+			sum2 += matrix[row + k + 2]*vector[k + 2];
+			sum3 += matrix[row + k + 3]*vector[k + 3];
+		}
+		for (; k < end; k++) sum0 += matrix[row + k]*vector[k];
+		return (sum0 + sum1) + (sum2 + sum3);
+	}
+
+}
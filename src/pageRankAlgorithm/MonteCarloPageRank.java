@@ -0,0 +1,162 @@
+package pageRankAlgorithm;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Scanner;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+
+public class MonteCarloPageRank {
+
+	// The default number of walks started from each node. A walk takes 1 / (1 - .85), about 6.7
+	// steps on average, so 2 walks take about 13 steps per node, fewer than the iterative
+	// algorithm's 18 or so sweeps over every edge, where 100 walks would take about 667
+	public static final int WALKS = 2;
+
+	/*
+	 * Input: Any number of filepaths linking to .csv files
+	 * Output: The runtime for the Monte Carlo pagerank algorithm and the top 10 nodes, and the
+	 * runtime for the iterative algorithm with the largest difference from its values and how
+	 * many of its top 10 nodes were found
+	 * The following program runs the approximate Monte Carlo pagerank algorithm on given .csv
+	 * files with WALKS walks per node, and compares it with the iterative algorithm.
+	 */
+	public static void main(String[] args) throws Exception {
+
+		System.out.println("Input Filenames: ");
+		// Read in input file names
+		Scanner sc = new Scanner(System.in);
+		while (sc.hasNextLine()) {
+			// Only valid file names will be accepted, otherwise an exception will be thrown
+			String fileName = sc.nextLine().trim();
+			System.out.println("\n" + fileName);
+			if (!fileName.equals("")) {
+				// Run the pagerank algorithms on the files and compare their top nodes
+				List<Node> top = runMonteCarlo(fileName, WALKS, 10);
+				for (Node node : top) System.out.println(node.getName() + "," + node.getValue());
+				List<Node> iterative = PageRank.sort(WeightedPageRank.runWeighted(fileName, -1));
+				System.out.println("Max Deviation: " + PageRank.maxDeviation(top, iterative));
+				System.out.println("Top " + top.size() + " Found: " + countShared(top, iterative.subList(0, top.size())));
+			}
+		} sc.close();
+
+	}
+
+	/*
+	 * This method runs the Monte Carlo page rank algorithm on a given file with the given number
+	 * of walks per node, and returns the top k nodes in order of rank. It also prints out the
+	 * running time of the algorithm in milliseconds, and the largest estimated standard error
+	 * of the top k values.
+	 */
+	public static List<Node> runMonteCarlo(String fileName, int walks, int k) throws Exception {
+		// Build the network on which the pagerank algorithm will be run
+		CompactNetwork network = CompactNetwork.buildNetwork(fileName);
+
+		System.out.println("Monte Carlo:");
+		final long startTime = System.currentTimeMillis();
+		// Run the pagerank algorithm for the network
+		double[] values = pageRankMonteCarlo(network, walks, 4, System.nanoTime());
+		List<Node> top = topK(network, values, k);
+		final long endTime = System.currentTimeMillis();
+		System.out.println("Run Time: " + ((double)endTime - startTime) + " ms");
+
+		double error = 0;
+		for (Node node : top) error = Math.max(error, estimateError(node.getValue(), network.size(), walks));
+		System.out.println("Estimated Error: " + error);
+
+		return top;
+	}
+
+	/*
+	 * This method estimates the pagerank values with a damping factor of .85 by starting the given
+	 * number of random walks from every node, split between the given number of threads. A walk
+	 * stops at each step with a probability of 1 minus the damping factor, so a node's value is
+	 * estimated as its number of visits times 1 minus the damping factor over the number of walks.
+	 */
+	public static double[] pageRankMonteCarlo(CompactNetwork network, int walks, int threads, long seed) {
+
+		// Set the damping factor to .85
+		double damping = .85;
+
+		network.requireDirected("Monte Carlo pagerank");
+		network.requireUnweighted("Monte Carlo pagerank");
+		int size = network.size();
+		SplittableRandom random = new SplittableRandom(seed);
+		// The partition size given the number of threads
+		int pSize = (int) Math.floor((double)size/threads);
+		RandomWalkThread[] partitions = new RandomWalkThread[threads];
+		final CountDownLatch latch = new CountDownLatch(threads);
+		for (int i = 0; i < threads; i++) {
+			int endPos = i == (threads - 1) ? size : (i + 1) * pSize;
+			partitions[i] = new RandomWalkThread(network, i * pSize, endPos, walks, damping, random.split(), latch);
+			partitions[i].start();
+		}
+
+		// Wait for all of the threads to finish
+		try {
+			latch.await();
+		} catch (InterruptedException ex) {
+			throw new RuntimeException("Errors Galore!!!");
+		}
+
+		// Add up the visits of every thread and scale them to values
+		double[] values = new double[size];
+		double scale = (1 - damping) / ((double) size * walks);
+		for (RandomWalkThread partition : partitions) {
+			long[] visits = partition.getVisits();
+			for (int i = 0; i < size; i++) values[i] += visits[i] * scale;
+		} return values;
+	}
+
+	/*
+	 * This method estimates the standard error of a Monte Carlo value. The visits to a node are
+	 * close to a Poisson count, so the error of the value is the square root of its visits times
+	 * the same scale, which is the square root of the value times the scale.
+	 */
+	public static double estimateError(double value, int size, int walks) {
+		return Math.sqrt(value * (1 - .85) / ((double) size * walks));
+	}
+
+	/*
+	 * This method returns the k nodes with the highest values in order of rank, keeping only
+	 * the current top k in a heap instead of sorting the whole network.
+	 */
+	public static List<Node> topK(CompactNetwork network, double[] values, int k) {
+		PriorityQueue<Node> heap = new PriorityQueue<Node>(k + 1, (a, b) -> compareRank(b, a));
+		for (int i = 0; i < values.length; i++) {
+			if (heap.size() < k || values[i] > heap.peek().getValue()) {
+				Node node = new Node(network.getName(i));
+				node.setValue(values[i]);
+				heap.add(node);
+				if (heap.size() > k) heap.poll();
+			}
+		}
+		List<Node> top = new ArrayList<Node>(heap);
+		top.sort((a, b) -> compareRank(a, b));
+		return top;
+	}
+
+	/*
+	 * This method orders nodes the same way as PageRank.sort: by value from highest
+	 * to lowest, and then by name.
+	 */
+	public static int compareRank(Node a, Node b) {
+		if (a.getValue() != b.getValue()) return a.getValue() > b.getValue() ? -1 : 1;
+		return a.getName().compareTo(b.getName());
+	}
+
+	/*
+	 * This method counts the nodes in the top list whose names are also in the reference list.
+	 */
+	public static int countShared(List<Node> top, List<Node> reference) {
+		Set<String> names = new HashSet<String>();
+		for (Node node : reference) names.add(node.getName());
+		int shared = 0;
+		for (Node node : top) if (names.contains(node.getName())) shared++;
+		return shared;
+	}
+
+}
@@ -0,0 +1,87 @@
+package pageRankAlgorithm;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+public class OffHeapBuffer {
+
+	// Each chunk holds 2^30 bytes, the largest power of two a direct ByteBuffer can hold
+	private static final int CHUNK_BITS = 30;
+	private static final long CHUNK_MASK = (1L << CHUNK_BITS) - 1;
+
+	private ByteBuffer[] chunks;
+	private long bytes;
+
+	/*
+	 * The OffHeapBuffer class takes in a number of bytes and allocates them outside of the
+	 * Java heap as direct ByteBuffers, so the garbage collector never has to scan or move them.
+	 * A single ByteBuffer is limited to 2 GB, so larger buffers are split into chunks and
+	 * addressed with a long index. A buffer should only be used for one type of value, so
+	 * that no value ever straddles two chunks.
+	 */
+	public OffHeapBuffer(long bytes) {
+		this.bytes = bytes;
+		int count = (int) ((bytes + CHUNK_MASK) >>> CHUNK_BITS);
+		this.chunks = new ByteBuffer[Math.max(count, 1)];
+		for (int i = 0; i < this.chunks.length; i++) {
+			long size = Math.min(CHUNK_MASK + 1, bytes - ((long) i << CHUNK_BITS));
+			this.chunks[i] = ByteBuffer.allocateDirect((int) size).order(ByteOrder.nativeOrder());
+		}
+	}
+
+	/*
+	 * Gets the size in bytes.
+	 */
+	public long getBytes() {
+		return this.bytes;
+	}
+
+	/*
+	 * Gets the int at the given int index.
+	 */
+	public int getInt(long index) {
+		long position = index << 2;
+		return this.chunks[(int) (position >>> CHUNK_BITS)].getInt((int) (position & CHUNK_MASK));
+	}
+
+	/*
+	 * Sets the int at the given int index.
+	 */
+	public void putInt(long index, int value) {
+		long position = index << 2;
+		this.chunks[(int) (position >>> CHUNK_BITS)].putInt((int) (position & CHUNK_MASK), value);
+	}
+
+	/*
+	 * Gets the long at the given long index.
+	 */
+	public long getLong(long index) {
+		long position = index << 3;
+		return this.chunks[(int) (position >>> CHUNK_BITS)].getLong((int) (position & CHUNK_MASK));
+	}
+
+	/*
+	 * Sets the long at the given long index.
+	 */
+	public void putLong(long index, long value) {
+		long position = index << 3;
+		this.chunks[(int) (position >>> CHUNK_BITS)].putLong((int) (position & CHUNK_MASK), value);
+	}
+
+	/*
+	 * Gets the double at the given double index.
+	 */
+	public double getDouble(long index) {
+		long position = index << 3;
+		return this.chunks[(int) (position >>> CHUNK_BITS)].getDouble((int) (position & CHUNK_MASK));
+	}
+
+	/*
+	 * Sets the double at the given double index.
+	 */
+	public void putDouble(long index, double value) {
+		long position = index << 3;
+		this.chunks[(int) (position >>> CHUNK_BITS)].putDouble((int) (position & CHUNK_MASK), value);
+	}
+
+}
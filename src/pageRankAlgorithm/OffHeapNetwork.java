@@ -0,0 +1,165 @@
+package pageRankAlgorithm;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class OffHeapNetwork {
+
+	private String[] names;
+	private OffHeapBuffer degrees;
+	private OffHeapBuffer offsets;
+	private OffHeapBuffer sources;
+	private long edgeCount;
+
+	/*
+	 * The OffHeapNetwork class stores the edges of a network in off-heap buffers. For each node
+	 * it keeps the number of outgoing edges (an int) and where its incoming edges start (a long),
+	 * and for each edge it keeps the node the edge comes from (an int). Storing the incoming edges
+	 * lets every node pull its new value without writing to any other node, so the network can be
+	 * split between threads without atomic values. Only the node names are kept on the heap.
+	 */
+	public OffHeapNetwork(String[] names, OffHeapBuffer degrees, OffHeapBuffer offsets, OffHeapBuffer sources, long edgeCount) {
+		this.names = names;
+		this.degrees = degrees;
+		this.offsets = offsets;
+		this.sources = sources;
+		this.edgeCount = edgeCount;
+	}
+
+	/*
+	 * This method takes in a filename and builds the off-heap network from it. The file is read
+	 * twice: the first pass names the nodes and counts their edges, and the second pass writes
+	 * each edge straight into its place in the off-heap buffer, so the edges never sit on the heap.
+	 */
+	public static OffHeapNetwork buildNetwork(String fileName) throws Exception {
+		// A BufferedReader to read in the .csv file
+		BufferedReader br = new BufferedReader(new FileReader(fileName));
+
+		String line;
+		Map<String, Integer> indices = new HashMap<String, Integer>();
+		List<String> names = new ArrayList<String>();
+		int[] outDegrees = new int[16];
+		int[] inDegrees = new int[16];
+		long edges = 0;
+
+		// For each line in the .csv file, count an edge from the first node to the second
+		while ((line = br.readLine()) != null) {
+			String[] lineItems = line.split(",");
+			int from = CompactNetwork.indexOf(lineItems[0], indices, names);
+			int to = CompactNetwork.indexOf(lineItems[2], indices, names);
+			if (names.size() > outDegrees.length) {
+				outDegrees = Arrays.copyOf(outDegrees, outDegrees.length * 2);
+				inDegrees = Arrays.copyOf(inDegrees, inDegrees.length * 2);
+			}
+			outDegrees[from]++;
+			inDegrees[to]++;
+			edges++;
+		} br.close();
+
+		int size = names.size();
+		OffHeapBuffer degrees = new OffHeapBuffer(4L * size);
+		OffHeapBuffer offsets = new OffHeapBuffer(8L * (size + 1));
+		OffHeapBuffer positions = new OffHeapBuffer(8L * size);
+		long offset = 0;
+		for (int i = 0; i < size; i++) {
+			degrees.putInt(i, outDegrees[i]);
+			offsets.putLong(i, offset);
+			positions.putLong(i, offset);
+			offset += inDegrees[i];
+		} offsets.putLong(size, offset);
+
+		// Read the file again, writing each from node into the incoming edges of the to node
+		OffHeapBuffer sources = new OffHeapBuffer(4L * edges);
+		br = new BufferedReader(new FileReader(fileName));
+		while ((line = br.readLine()) != null) {
+			String[] lineItems = line.split(",");
+			int to = indices.get(lineItems[2]);
+			long position = positions.getLong(to);
+			sources.putInt(position, indices.get(lineItems[0]));
+			positions.putLong(to, position + 1);
+		} br.close();
+
+		return new OffHeapNetwork(names.toArray(new String[size]), degrees, offsets, sources, edges);
+	}
+
+	/*
+	 * This method copies a compact network into an off-heap network.
+	 */
+	public static OffHeapNetwork fromNetwork(CompactNetwork network) {
+		network.requireDirected("An off-heap network");
+		network.requireUnweighted("An off-heap network");
+		int size = network.size();
+		CompactNetwork incoming = network.reverse();
+		OffHeapBuffer degrees = new OffHeapBuffer(4L * size);
+		OffHeapBuffer offsets = new OffHeapBuffer(8L * (size + 1));
+		OffHeapBuffer sources = new OffHeapBuffer(4L * network.getEdgeCount());
+		for (int i = 0; i < size; i++) {
+			degrees.putInt(i, network.getOutDegree(i));
+			offsets.putLong(i, incoming.getOffsets()[i]);
+		} offsets.putLong(size, incoming.getOffsets()[size]);
+		for (int i = 0; i < network.getEdgeCount(); i++) sources.putInt(i, incoming.getTargets()[i]);
+		return new OffHeapNetwork(network.getNames(), degrees, offsets, sources, network.getEdgeCount());
+	}
+
+	/*
+	 * This method creates a list of nodes with the given values, so that the results
+	 * can be sorted and written in the same way as the other pagerank algorithms.
+	 */
+	public List<Node> toNetwork(double[] values) {
+		List<Node> network = new ArrayList<Node>(this.names.length);
+		for (int i = 0; i < this.names.length; i++) {
+			Node node = new Node(this.names[i]);
+			node.setValue(values[i]);
+			network.add(node);
+		} return network;
+	}
+
+	/*
+	 * Gets the number of nodes.
+	 */
+	public int size() {
+		return this.names.length;
+	}
+
+	/*
+	 * Gets the number of edges.
+	 */
+	public long getEdgeCount() {
+		return this.edgeCount;
+	}
+
+	/*
+	 * Gets the name of the node at the given index.
+	 */
+	public String getName(int node) {
+		return this.names[node];
+	}
+
+	/*
+	 * Gets the number of outgoing edges of the node at the given index.
+	 */
+	public int getOutDegree(int node) {
+		return this.degrees.getInt(node);
+	}
+
+	/*
+	 * Gets where the incoming edges of the node at the given index start. The incoming
+	 * edges of node i run from getOffset(i) up to (but not including) getOffset(i + 1).
+	 */
+	public long getOffset(int node) {
+		return this.offsets.getLong(node);
+	}
+
+	/*
+	 * Gets the node that the edge at the given index comes from.
+	 */
+	public int getSource(long edge) {
+		return this.sources.getInt(edge);
+	}
+
+}
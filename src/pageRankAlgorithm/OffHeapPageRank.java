@@ -0,0 +1,222 @@
+package pageRankAlgorithm;
+
+import java.util.List;
+import java.util.Scanner;
+import java.util.concurrent.CountDownLatch;
+
+public class OffHeapPageRank {
+
+	/*
+	 * Input: Any number of filepaths linking to .csv files
+	 * Output: The runtime for the off-heap iterative and parallelized pagerank algorithms
+	 * The following program runs the off-heap pagerank algorithms on given .csv files.
+	 */
+	public static void main(String[] args) throws Exception {
+
+		System.out.println("Input Filenames: ");
+		// Read in input file names
+		Scanner sc = new Scanner(System.in);
+		while (sc.hasNextLine()) {
+			// Only valid file names will be accepted, otherwise an exception will be thrown
+			String fileName = sc.nextLine().trim();
+			System.out.println("\n" + fileName);
+			if (!fileName.equals("")) {
+				// Run the pagerank algorithms on the files
+				runIterative(fileName);
+				runParallelized(fileName);
+			}
+		} sc.close();
+
+	}
+
+	/*
+	 * This method runs the off-heap iterative page rank algorithm on a given file.
+	 * It also prints out the running time of the algorithm in milliseconds.
+	 */
+	public static List<Node> runIterative(String fileName) throws Exception {
+		// Build the network on which the pagerank algorithm will be run
+		OffHeapNetwork network = OffHeapNetwork.buildNetwork(fileName);
+		// Calculate the variance which will determine when the algorithm converges
+		double variance = PageRank.calculateVariance(network.size());
+
+		System.out.println("Off-Heap Iterative:");
+		final long startTime = System.currentTimeMillis();
+		// Run the pagerank algorithm for the network using the calculated variance
+		double[] values = pageRankIterativeScaled(network, variance);
+		final long endTime = System.currentTimeMillis();
+		System.out.println("Run Time: " + ((double)endTime - startTime) + " ms");
+
+		return network.toNetwork(values);
+	}
+
+	/*
+	 * This method runs the off-heap parallelized page rank algorithm on a given file.
+	 * It also prints out the running time of the algorithm in milliseconds.
+	 */
+	public static List<Node> runParallelized(String fileName) throws Exception {
+		// Build the network on which the pagerank algorithm will be run
+		OffHeapNetwork network = OffHeapNetwork.buildNetwork(fileName);
+		// Calculate the variance which will determine when the algorithm converges
+		double variance = PageRank.calculateVariance(network.size());
+
+		System.out.println("Off-Heap Parallelized:");
+		final long startTime = System.currentTimeMillis();
+		// Run the pagerank algorithm for the network using the calculated variance
+		double[] values = pageRankParallelized(network, variance, 4);
+		final long endTime = System.currentTimeMillis();
+		System.out.println("Run Time: " + ((double)endTime - startTime) + " ms");
+
+		return network.toNetwork(values);
+	}
+
+	/*
+	 * This method runs the iterative version of the pagerank algorithm with a damping factor
+	 * of .85 on an off-heap network. The current values, future values and shares are also
+	 * kept off the heap, so nothing is allocated while iterating. It returns the values
+	 * normalized over the variance.
+	 */
+	public static double[] pageRankIterativeScaled(OffHeapNetwork network, double variance) {
+
+		// This is the damping factor for the network
+		double d = .85;
+
+		int size = network.size();
+		OffHeapBuffer values = new OffHeapBuffer(8L * size);
+		OffHeapBuffer future = new OffHeapBuffer(8L * size);
+		OffHeapBuffer shares = new OffHeapBuffer(8L * size);
+		initializeValues(future, size);
+
+		// Run generate the new values for each node until the largest change is within the variance
+		double change = Double.MAX_VALUE;
+		while (change > variance) {
+			// Swap the future values into the current values
+			OffHeapBuffer temp = values;
+			values = future;
+			future = temp;
+			// Every node gets 1 minus the damping factor, and its part of the sinks' value
+			double base = (1-d)/size + d*shareValues(network, values, shares, 0, size)/size;
+			change = pullValues(network, values, future, shares, 0, size, d, base);
+		}
+
+		return normalizeValues(future, size, variance);
+	}
+
+	/*
+	 * This method runs the parallelized version of the pagerank algorithm with a damping factor
+	 * of .85 on an off-heap network, splitting the nodes into one partition per thread. Each
+	 * iteration runs in two halves: the threads first calculate the shares of their nodes, and
+	 * then pull the future values of their nodes from those shares. It returns the values
+	 * normalized over the variance.
+	 */
+	public static double[] pageRankParallelized(OffHeapNetwork network, double variance, int threads) {
+
+		// Set the damping factor to .85
+		double d = .85;
+
+		int size = network.size();
+		OffHeapBuffer values = new OffHeapBuffer(8L * size);
+		OffHeapBuffer future = new OffHeapBuffer(8L * size);
+		OffHeapBuffer shares = new OffHeapBuffer(8L * size);
+		initializeValues(future, size);
+
+		// The partition size given the number of threads
+		int pSize = (int) Math.floor((double)size/threads);
+		OffHeapPartitionThread[] partitions = new OffHeapPartitionThread[threads];
+
+		// Continually iterate running the threads on the partitions until convergence
+		double change = Double.MAX_VALUE;
+		while (change > variance) {
+			// Swap the future values into the current values
+			OffHeapBuffer temp = values;
+			values = future;
+			future = temp;
+
+			// Calculate the shares and sum the sinks' values
+			CountDownLatch latch = new CountDownLatch(threads);
+			for (int i = 0; i < threads; i++) {
+				int endPos = i == (threads - 1) ? size : (i + 1) * pSize;
+				partitions[i] = new OffHeapPartitionThread(network, values, future, shares, i * pSize, endPos, latch, d, 0, false);
+				partitions[i].start();
+			}
+			double sinkSum = 0;
+			awaitLatch(latch);
+			for (int i = 0; i < threads; i++) sinkSum += partitions[i].getResult();
+
+			// Pull the future values and find the largest change
+			double base = (1-d)/size + d*sinkSum/size;
+			latch = new CountDownLatch(threads);
+			for (int i = 0; i < threads; i++) {
+				int endPos = i == (threads - 1) ? size : (i + 1) * pSize;
+				partitions[i] = new OffHeapPartitionThread(network, values, future, shares, i * pSize, endPos, latch, d, base, true);
+				partitions[i].start();
+			}
+			change = 0;
+			awaitLatch(latch);
+			for (int i = 0; i < threads; i++) change = Math.max(change, partitions[i].getResult());
+		}
+
+		return normalizeValues(future, size, variance);
+	}
+
+	/*
+	 * This method waits for all of the threads counting down the latch to finish.
+	 */
+	public static void awaitLatch(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException ex) {
+			throw new RuntimeException("Errors Galore!!!");
+		}
+	}
+
+	/*
+	 * This method initializes the given values to 1 divided by the size of the network.
+	 */
+	public static void initializeValues(OffHeapBuffer values, int size) {
+		for (int i = 0; i < size; i++) values.putDouble(i, 1/(double) size);
+	}
+
+	/*
+	 * This method calculates the share of its value that each node from start to end passes
+	 * along each of its edges, and returns the sum of the values of the sinks among them.
+	 */
+	public static double shareValues(OffHeapNetwork network, OffHeapBuffer values, OffHeapBuffer shares, int start, int end) {
+		double sinkSum = 0;
+		for (int i = start; i < end; i++) {
+			int degree = network.getOutDegree(i);
+			if (degree == 0) {
+				sinkSum += values.getDouble(i);
+				shares.putDouble(i, 0);
+			} else shares.putDouble(i, values.getDouble(i)/degree);
+		} return sinkSum;
+	}
+
+	/*
+	 * This method sets the future value of each node from start to end to the base plus the
+	 * damping factor times the shares of its incoming edges. It returns the largest change
+	 * from the current values.
+	 */
+	public static double pullValues(OffHeapNetwork network, OffHeapBuffer values, OffHeapBuffer future,
+			OffHeapBuffer shares, int start, int end, double d, double base) {
+		double change = 0;
+		long j = network.getOffset(start);
+		for (int i = start; i < end; i++) {
+			long last = network.getOffset(i + 1);
+			double sum = 0;
+			for (; j < last; j++) sum += shares.getDouble(network.getSource(j));
+			double value = base + d*sum;
+			change = Math.max(change, Math.abs(value - values.getDouble(i)));
+			future.putDouble(i, value);
+		} return change;
+	}
+
+	/*
+	 * This performs the final step and normalizes the values by the variance.
+	 */
+	public static double[] normalizeValues(OffHeapBuffer values, int size, double variance) {
+		double[] result = new double[size];
+		for (int i = 0; i < size; i++) result[i] = Math.ceil(values.getDouble(i)/variance)*variance;
+		return result;
+	}
+
+}
@@ -0,0 +1,61 @@
+package pageRankAlgorithm;
+
+import java.util.concurrent.CountDownLatch;
+
+public class OffHeapPartitionThread extends Thread {
+
+	private OffHeapNetwork network;
+	private OffHeapBuffer values;
+	private OffHeapBuffer future;
+	private OffHeapBuffer shares;
+	private int start;
+	private int end;
+	private CountDownLatch latch;
+	private double damping;
+	private double base;
+	private boolean pull;
+	private double result;
+
+	/*
+	 * This is a thread that runs one half of an off-heap pagerank iteration on the nodes from
+	 * start up to (but not including) end. If pull is false it calculates the share of each
+	 * node's value and sums the value of the sinks, otherwise it pulls the future values from
+	 * the shares and finds the largest change. Every thread only writes to its own nodes, so
+	 * no atomic values are needed.
+	 */
+	public OffHeapPartitionThread(OffHeapNetwork network, OffHeapBuffer values, OffHeapBuffer future, OffHeapBuffer shares,
+			int start, int end, CountDownLatch latch, double damping, double base, boolean pull) {
+		this.network = network;
+		this.values = values;
+		this.future = future;
+		this.shares = shares;
+		this.start = start;
+		this.end = end;
+		this.latch = latch;
+		this.damping = damping;
+		this.base = base;
+		this.pull = pull;
+	}
+
+	/*
+	 * Gets the sum of the sinks' values, or the largest change if pulling.
+	 */
+	public double getResult() {
+		return this.result;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Thread#run()
+	 * This method overrides the original thread run() method.
+	 * This method runs its half of the iteration on the partition and
+	 * then counts down the CountDownLatch when done.
+	 */
+	@Override
+	public void run() {
+		if (pull) result = OffHeapPageRank.pullValues(network, values, future, shares, start, end, damping, base);
+		else result = OffHeapPageRank.shareValues(network, values, shares, start, end);
+		latch.countDown(); // Count down the latch to signal the termination of the thread
+	}
+
+}
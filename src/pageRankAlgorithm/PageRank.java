@@ -4,14 +4,20 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
 import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
 
 public class PageRank {
 	
 	/*
-	 * Input: Any number of filepaths linking to .csv files
+	 * Input: Optionally a cache directory and its size in megabytes as arguments, then any number
+	 * of filepaths linking to .csv files
 	 * Output: The runtime for each of the three pagerank algorithms
 	 * This also prints the results for the three algorithms to .csv files
 	 * The following program runs three pagerank algorithms: an iterative version,
@@ -19,6 +25,9 @@ public class PageRank {
 	 */
 	public static void main(String[] args) throws Exception {
 		
+		// An optional cache directory and its size in megabytes, so files run before are not run again
+		ResultCache cache = null;
+		if (args.length > 0) cache = new ResultCache(new File(args[0]), (args.length > 1 ? Long.parseLong(args[1]) : 256) << 20);
 		// An accumulator to write to different files for each input file
 		int accumulator = 1;
 		System.out.println("Input Filenames: ");
@@ -30,7 +39,9 @@ public class PageRank {
 			System.out.println("\n" + fileName);
 			if (!fileName.equals("")) {
 				// Run the pagerank algorithms on the files
-				runAndWriteAll(fileName, "E://Social Computing/test" + accumulator++ + ".csv");
+				String writeFileName = "E://Social Computing/test" + accumulator++ + ".csv";
+				if (cache == null) runAndWriteAll(fileName, writeFileName);
+				else runAndWriteAll(fileName, writeFileName, cache);
 			}
 		} sc.close();
 		
@@ -81,6 +92,43 @@ public class PageRank {
 		return network;
 	}
 	
+	/*
+	 * This method runs the iterative page rank algorithm on a given file, starting from the
+	 * values in a previous result file instead of 1 / n. It prints out the number of iterations
+	 * and the running time of the algorithm in milliseconds.
+	 */
+	public static List<Node> runWarmStarted(String fileName, String previousFileName) throws Exception {
+		// Build the network on which the pagerank algorithm will be run, and start it from the previous values
+		List<Node> network = buildNetwork(fileName);
+		initializeValues(network, readValues(previousFileName));
+		// Calculate the variance which will determine when the algorithm converges
+		double variance = calculateVariance(network.size());
+		
+		System.out.println("Warm Started Iterative:");
+		final long startTime = System.currentTimeMillis();
+		// Run the pagerank algorithm for the network using the calculated variance
+		int iterations = iterateScaled(network, variance);
+		stepAndNormalizeValues(network, variance);
+		final long endTime = System.currentTimeMillis();
+		System.out.println("Iterations: " + iterations);
+		System.out.println("Run Time: " + ((double)endTime - startTime) + " ms");
+		
+		return network;
+	}
+	
+	/*
+	 * This method compares starting the iterative pagerank algorithm from 1 / n and from the
+	 * values in a previous result file, and prints the number of iterations saved.
+	 */
+	public static void testWarmStart(String fileName, String previousFileName) throws Exception {
+		List<Node> network = buildNetwork(fileName);
+		int cold = iterateScaled(network, calculateVariance(network.size()));
+		network = buildNetwork(fileName);
+		initializeValues(network, readValues(previousFileName));
+		int warm = iterateScaled(network, calculateVariance(network.size()));
+		System.out.println("Iterations: " + cold + " cold, " + warm + " warm, " + (cold - warm) + " saved");
+	}
+	
 	/*
 	 * This method runs the matrix page rank algorithm on a given file.
 	 * It also prints out the running time of the algorithm in milliseconds.
@@ -135,7 +183,26 @@ public class PageRank {
 		pw.write(sb.toString());
 		pw.close();
 	}
-	
+
+	/*
+	 * This method runs all three of the pagerank algorithms on the given .csv file like
+	 * runAndWriteAll, unless the cache already holds the results for a file with the same
+	 * contents, in which case the stored results are copied to the new file instead. The
+	 * file is hashed before loading, since all three algorithms are skipped on a hit.
+	 */
+	public static void runAndWriteAll(String readFileName, String writeFileName, ResultCache cache) throws Exception {
+		// The key uses the damping factor of .85 and the tolerance of calculateVariance
+		String key = ResultCache.key(ResultCache.hashFile(readFileName), "all", .85, Math.pow(10, -5));
+		File cached = cache.lookup(key);
+		if (cached != null) {
+			System.out.println("Cached: " + cached.getName());
+			Files.copy(cached.toPath(), new File(writeFileName).toPath(), StandardCopyOption.REPLACE_EXISTING);
+			return;
+		}
+		runAndWriteAll(readFileName, writeFileName);
+		cache.store(key, new File(writeFileName));
+	}
+
 	/*
 	 * This method tests the three pagerank algorithms to assess whether or not they generate
 	 * the same results. (NOTE: the matrix version of the pagerank algorithm occasionally gives
@@ -162,6 +229,48 @@ public class PageRank {
 		}
 	}
 	
+	/*
+	 * This method compares the memory allocated while iterating the matrix version of the
+	 * pagerank algorithm with new matrices every iteration, as it used to, and with the two
+	 * swapped vectors of iterateMatrix. It counts the bytes this thread allocates in each loop,
+	 * and prints them with the largest difference between the two loops' values. (NOTE: the
+	 * first call in a JVM may count a few hundred bytes for loading classes.)
+	 */
+	public static void testMatrixAllocation(String fileName) throws Exception {
+		List<Node> network = buildNetwork(fileName);
+		double variance = calculateVariance(network.size());
+		double[][] NT = transposeMatrix(toNMatrixScaled(network, .85));
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long thread = Thread.currentThread().getId();
+
+		// Iterate with a new b matrix, totals and scaled matrix every iteration
+		double[][] b = toBMatrix(network);
+		double[][] bP = new double[b.length][1];
+		int matrixIterations = 0;
+		long startBytes = threads.getThreadAllocatedBytes(thread);
+		while (checkConverge(b, bP, variance)) {
+			bP = b;
+			b = multiplyMatrices(NT, b);
+			b = constantMultiply(b, 1/getColumnTotals(b)[0]);
+			matrixIterations++;
+		}
+		long matrixBytes = threads.getThreadAllocatedBytes(thread) - startBytes;
+
+		// Iterate with the two swapped vectors
+		double[][] vectors = {toBVector(network), new double[network.size()]};
+		startBytes = threads.getThreadAllocatedBytes(thread);
+		int vectorIterations = iterateMatrix(NT, vectors, variance);
+		long vectorBytes = threads.getThreadAllocatedBytes(thread) - startBytes;
+
+		double deviation = 0;
+		for (int i = 0; i < b.length; i++) deviation = Math.max(deviation, Math.abs(b[i][0] - vectors[0][i]));
+		System.out.println("Matrices: " + matrixBytes + " bytes in " + matrixIterations + " iterations, "
+				+ matrixBytes/Math.max(matrixIterations, 1) + " per iteration");
+		System.out.println("Vectors: " + vectorBytes + " bytes in " + vectorIterations + " iterations, "
+				+ vectorBytes/Math.max(vectorIterations, 1) + " per iteration");
+		System.out.println("Max Deviation: " + deviation);
+	}
+
 	/*
 	 * This method takes in a filename and builds the network that will be used
 	 * in the pagerank algorithms. (NOTE: it is assumed that the file is a .csv
@@ -212,6 +321,19 @@ public class PageRank {
 		return variance;
 	}
 	
+	/*
+	 * This method returns the largest difference between the values of the same named
+	 * nodes in the two networks.
+	 */
+	public static double maxDeviation(List<Node> network, List<Node> reference) {
+		Map<String, Double> values = new HashMap<String, Double>();
+		for (Node node : reference) values.put(node.getName(), node.getValue());
+		double max = 0;
+		for (Node node : network) {
+			max = Math.max(max, Math.abs(node.getValue() - values.get(node.getName())));
+		} return max;
+	}
+
 	/*
 	 * This method checks for and fixes network sinks. A sink is a node
 	 * that has no out edges, this trapping pagerank values. A sink is
@@ -232,17 +354,88 @@ public class PageRank {
 		}
 	}
 	
+	/*
+	 * This method initializes the node values from a previous result, matched by name. Nodes
+	 * which were not in the previous result start at 1 divided by the size of the network, and
+	 * the values are then scaled to add up to 1.
+	 */
+	public static void initializeValues(List<Node> network, Map<String, Double> previous) {
+		double total = 0;
+		for (Node node : network) {
+			Double value = previous.get(node.getName());
+			node.setFutureValue(value == null ? 1/(double) network.size() : value);
+			total += node.getFutureValue();
+		}
+		for (Node node : network) {
+			node.setFutureValue(node.getFutureValue()/total);
+		}
+	}
+	
+	/*
+	 * This method writes the network to a file with a name,value pair on each line, in the
+	 * order of the list. The file can be read back by readValues.
+	 */
+	public static void writeValues(List<Node> network, String fileName) throws Exception {
+		PrintWriter pw = new PrintWriter(new File(fileName));
+		StringBuilder sb = new StringBuilder();
+		for (Node node : network) {
+			sb.append(node.getName() + "," + node.getValue() + "\n");
+		}
+		pw.write(sb.toString());
+		pw.close();
+	}
+	
+	/*
+	 * This method reads the values of a previous result file into a map from node names to values.
+	 * The file can either have a name,value pair on each line, or be a file written by runAndWriteAll,
+	 * in which case the iterative results are used. Lines without a value, such as titles, are skipped.
+	 */
+	public static Map<String, Double> readValues(String fileName) throws Exception {
+		BufferedReader br = new BufferedReader(new FileReader(fileName));
+		Map<String, Double> values = new HashMap<String, Double>();
+		String line;
+		while ((line = br.readLine()) != null) {
+			String[] lineItems = line.split(",");
+			// A runAndWriteAll line starts with the rank, followed by the iterative name and value
+			int column = lineItems.length > 2 && lineItems[0].trim().matches("\\d+") ? 1 : 0;
+			if (lineItems.length < column + 2) continue;
+			try {
+				values.put(lineItems[column], Double.parseDouble(lineItems[column + 1].trim()));
+			} catch (NumberFormatException ex) {
+				continue;
+			}
+		} br.close();
+		return values;
+	}
+	
 	/*
 	 * This method runs the iterative version of the pagerank algorithm with a damping
 	 * factor of .85. It then returns the network with the appropriate pagerank values.
 	 */
 	public static List<Node> pageRankIterativeScaled(List<Node> network, double variance) {
 		
+		// Run the iterations until convergence
+		iterateScaled(network, variance);
+		
+		// Do one final step and normalize all values over the variance
+		stepAndNormalizeValues(network, variance);
+		
+		return network;
+	}
+	
+	/*
+	 * This method runs the iterations of the iterative pagerank algorithm until convergence,
+	 * leaving the converged values as the future values. It returns the number of iterations.
+	 */
+	public static int iterateScaled(List<Node> network, double variance) {
+		
 		// This is the damping factor for the network
 		double d = .85;
+		int iterations = 0;
 		
 		// Run generate the new values for each node until convergence
 		while (checkConverge(network, variance)) {
+			iterations++;
 			// For each node set the value to the future value and reset the future value
 			stepValues(network);
 			for (Node node : network) {
@@ -258,12 +451,116 @@ public class PageRank {
 			} 
 		}
 		
-		// Do one final step and normalize all values over the variance
-		stepAndNormalizeValues(network, variance);
-		
-		return network;
+		return iterations;
 	}
 	
+	/*
+	 * This method runs the iterative version of the pagerank algorithm with a damping factor
+	 * of .85 like pageRankIterativeScaled, but fuses each iteration into one pass over the nodes.
+	 * It then returns the network with the appropriate pagerank values.
+	 */
+	public static List<Node> pageRankIterativeFused(List<Node> network, double variance) {
+
+		// The incoming edges of each node, in the order of the nodes they come from
+		CompactNetwork incoming = CompactNetwork.fromNetwork(network).reverse();
+		double[] values = new double[network.size()];
+		// Run the iterations until convergence
+		iterateFused(incoming, values, variance);
+
+		// Normalize all values over the variance
+		for (int i = 0; i < values.length; i++) {
+			network.get(i).setValue(Math.ceil(values[i]/variance)*variance);
+			network.get(i).setFutureValue(0);
+		}
+
+		return network;
+	}
+
+	/*
+	 * This method runs the iterations of the iterative pagerank algorithm on the incoming edges
+	 * of a network until convergence, leaving the converged values in the values array. It returns
+	 * the number of iterations. Instead of checking for convergence, stepping the values and then
+	 * distributing them in three passes, each node's new value is pulled from the shares of the
+	 * nodes pointing to it, compared with its old value, and used for its own share in the next
+	 * iteration, all while visiting that node. The shares are kept in two arrays that are swapped
+	 * every iteration. The shares are added in the order of the nodes they come from, with 1 minus
+	 * the damping factor added at the node itself, which is the order pageRankIterativeScaled adds
+	 * them in, so the values are exactly the same. It needs every node to have an outgoing edge,
+	 * as fixNetworkSinks makes sure of, since a sink's share would divide by zero and its value
+	 * would be lost, so it is only used on the networks buildNetwork returns.
+	 */
+	private static int iterateFused(CompactNetwork incoming, double[] values, double variance) {
+
+		// This is the damping factor for the network
+		double d = .85;
+		int size = incoming.size();
+		int[] offsets = incoming.getOffsets();
+		int[] sources = incoming.getTargets();
+		int[] degrees = new int[size];
+		for (int source : sources) degrees[source]++;
+		// The first incoming edge of each node that comes from the node itself or a later one
+		int[] splits = new int[size];
+		for (int i = 0; i < size; i++) {
+			splits[i] = offsets[i];
+			while (splits[i] < offsets[i + 1] && sources[splits[i]] < i) splits[i]++;
+		}
+
+		// Start from 1 / n, and the shares of those values
+		double[] shares = new double[size];
+		double[] nextShares = new double[size];
+		for (int i = 0; i < size; i++) {
+			values[i] = (double)1/size;
+			shares[i] = d*(values[i]/degrees[i]);
+		}
+
+		// The first iteration's step is the values starting from 1 / n
+		int iterations = 1;
+		double base = (1-d)/size;
+		while (true) {
+			double change = 0;
+			for (int i = 0; i < size; i++) {
+				// Add the shares of the nodes before this one, 1 minus the damping factor, and then the rest
+				double future = 0;
+				for (int j = offsets[i]; j < splits[i]; j++) future += shares[sources[j]];
+				future += base;
+				for (int j = splits[i]; j < offsets[i + 1]; j++) future += shares[sources[j]];
+				change = Math.max(change, Math.abs(future - values[i]));
+				values[i] = future;
+				nextShares[i] = d*(future/degrees[i]);
+			}
+			if (change <= variance) return iterations;
+			iterations++;
+			double[] temp = shares;
+			shares = nextShares;
+			nextShares = temp;
+		}
+	}
+
+	/*
+	 * This method compares the time per iteration of the iterative pagerank algorithm with
+	 * separate passes and with fused passes on a given file, and prints the largest difference
+	 * between their values.
+	 */
+	public static void testFused(String fileName) throws Exception {
+		List<Node> network = buildNetwork(fileName);
+		double variance = calculateVariance(network.size());
+		CompactNetwork incoming = CompactNetwork.fromNetwork(network).reverse();
+		double[] values = new double[network.size()];
+
+		long startTime = System.nanoTime();
+		int separate = iterateScaled(network, variance);
+		double separateTime = (System.nanoTime() - startTime)/1e6;
+		startTime = System.nanoTime();
+		int fused = iterateFused(incoming, values, variance);
+		double fusedTime = (System.nanoTime() - startTime)/1e6;
+
+		double deviation = 0;
+		for (int i = 0; i < values.length; i++) deviation = Math.max(deviation, Math.abs(network.get(i).getFutureValue() - values[i]));
+		System.out.println("Iterations: " + separate + " separate, " + fused + " fused");
+		System.out.printf("Per Iteration: %.3f ms separate, %.3f ms fused%n", separateTime/separate, fusedTime/fused);
+		System.out.println("Max Deviation: " + deviation);
+	}
+
 	/*
 	 * This method steps the future value for each node to the actual value
 	 * and then resets the future value to 0.
@@ -312,25 +609,15 @@ public class PageRank {
 		double[][] N = toNMatrixScaled(network, d);
 		// The matrix is transposed so it can be multiplied by the n x 1 b matrix
 		double[][] NT = transposeMatrix(N);
-		// A matrix to store the values for the nodes, initialized to 1 / the size of the network
-		double[][] b = toBMatrix(network);
-		// A matrix to store the prior iteration's values
-		double[][] bP = new double[b.length][1];
-		
+		// The values for the nodes, initialized to 1 / the size of the network, and the prior
+		// iteration's values, which are swapped every iteration
+		double[][] vectors = {toBVector(network), new double[network.size()]};
 		// Update the values until convergence
-		while (checkConverge(b, bP, variance)) {
-			// Set the bP matrix to the old b matrix
-			bP = b;
-			// Multiply the NT matrix by the b matrix to calculate the future values
-			b = multiplyMatrices(NT, b);
-			// Check for a leak of value in the network
-			double leak = 1/getColumnTotals(b)[0];
-			// Redistribute the leak back to the network
-			b = constantMultiply(b, leak);
-		}
+		iterateMatrix(NT, vectors, variance);
+		double[] b = vectors[0];
 		
 		// After convergence set the values of the nodes to the matrix values
-		for (int i = 0; i < network.size(); i++) network.get(i).setValue(Math.round(b[i][0]/variance)*variance);
+		for (int i = 0; i < network.size(); i++) network.get(i).setValue(Math.round(b[i]/variance)*variance);
 		
 		return network;
 	}
@@ -384,6 +671,51 @@ public class PageRank {
 		return matrix;
 	}
 	
+	/*
+	 * This method creates the b vector, with all values set to 1 / n.
+	 */
+	public static double[] toBVector(List<Node> network) {
+		double[] vector = new double[network.size()];
+		for (int i = 0; i < vector.length; i++) vector[i] = (double)1/vector.length;
+		return vector;
+	}
+	
+	/*
+	 * This method runs iterations of the matrix version of the pagerank algorithm until
+	 * convergence, and returns the number of iterations. The first of the two vectors holds
+	 * the values and the second the prior iteration's values; they are swapped in place every
+	 * iteration, so the loop allocates nothing. The multiply also sums the new values for the
+	 * leak, and redistributing the leak also measures the change from the prior values.
+	 */
+	public static int iterateMatrix(double[][] matrix, double[][] vectors, double variance) {
+		int iterations = 0;
+		double change = ArrayKernels.maxDifference(vectors[0], vectors[1]);
+		while (change > variance) {
+			// The old values become the prior values, and their array is reused for the new values
+			double[] prior = vectors[0];
+			vectors[0] = vectors[1];
+			vectors[1] = prior;
+			// Multiply the matrix by the prior values, then redistribute the leak back to the network
+			double total = multiplyVector(matrix, prior, vectors[0]);
+			change = ArrayKernels.scaleAndMaxDifference(vectors[0], 1/total, prior);
+			iterations++;
+		} return iterations;
+	}
+	
+	/*
+	 * This method multiplies the matrix by the vector into the result, and returns the sum of
+	 * the result. The sums are made in the same order as multiplyMatrices and getColumnTotals.
+	 */
+	public static double multiplyVector(double[][] matrix, double[] vector, double[] result) {
+		double total = 0;
+		for (int i = 0; i < matrix.length; i++) {
+			double sum = 0;
+			for (int k = 0; k < vector.length; k++) sum += matrix[i][k] * vector[k];
+			result[i] = sum;
+			total += sum;
+		} return total;
+	}
+	
 	/*
 	 * This method checks for the convergence of the network by comparing the values of the
 	 * prior and current values of the b matrices and checking if they are less than the variance.
@@ -0,0 +1,191 @@
+package pageRankAlgorithm;
+
+import java.util.List;
+import java.util.Scanner;
+
+public class PageRankDoubleDouble {
+
+	/*
+	 * Input: Any number of filepaths linking to .csv files
+	 * Output: The runtime for the double-double and the BigDecimal matrix pagerank algorithms
+	 * The following program runs the double-double pagerank algorithm on given .csv files
+	 * and benchmarks it against the BigDecimal matrix pagerank algorithm.
+	 */
+	public static void main(String[] args) throws Exception {
+
+		System.out.println("Input Filenames: ");
+		// Read in input file names
+		Scanner sc = new Scanner(System.in);
+		while (sc.hasNextLine()) {
+			// Only valid file names will be accepted, otherwise an exception will be thrown
+			String fileName = sc.nextLine().trim();
+			System.out.println("\n" + fileName);
+			if (!fileName.equals("")) {
+				// Run the pagerank algorithms on the files
+				testDoubleDoubleVsBigDecimal(fileName);
+			}
+		} sc.close();
+
+	}
+
+	/*
+	 * This method runs the double-double page rank algorithm on a given file.
+	 * It also prints out the running time of the algorithm in milliseconds.
+	 */
+	public static List<Node> runDoubleDouble(String fileName) throws Exception {
+		// Build the network on which the pagerank algorithm will be run
+		CompactNetwork network = CompactNetwork.buildNetwork(fileName);
+		// Calculate the variance which will determine when the algorithm converges
+		double variance = PageRank.calculateVariance(network.size());
+
+		System.out.println("Double-Double:");
+		final long startTime = System.currentTimeMillis();
+		// Run the pagerank algorithm for the network using the calculated variance
+		double[] values = pageRankRandomWalkScaled(network, variance);
+		final long endTime = System.currentTimeMillis();
+		System.out.println("Run Time: " + ((double)endTime - startTime) + " ms");
+
+		return network.toNetwork(values);
+	}
+
+	/*
+	 * This method benchmarks the double-double algorithm against the BigDecimal matrix
+	 * algorithm, printing both running times and the largest difference in their values.
+	 */
+	public static void testDoubleDoubleVsBigDecimal(String fileName) throws Exception {
+		List<Node> network1 = runDoubleDouble(fileName);
+		List<Node> network2 = PageRankBigDecimal.runMatrix(fileName);
+		System.out.println("Max Deviation: " + PageRank.maxDeviation(network1, network2));
+	}
+
+	/*
+	 * This method runs the same random walk as the BigDecimal matrix version of the pagerank
+	 * algorithm with a damping factor of .85, but without building the n x n matrix. Each value
+	 * is held as an unevaluated sum of two doubles (a high and a low part), which carries about
+	 * 32 significant digits, and is pulled from the node's incoming edges. The 1 - d and sink
+	 * entries of the matrix are the same in every row, so they are added once per node. (NOTE:
+	 * a repeated edge is counted each time, as in the iterative algorithm, whereas the matrix
+	 * only keeps it once.) It returns the values normalized over the variance.
+	 */
+	public static double[] pageRankRandomWalkScaled(CompactNetwork network, double variance) {
+
+		// The damping factor is set to .85
+		double d = .85;
+
+		network.requireDirected("Double-double pagerank");
+		network.requireUnweighted("Double-double pagerank");
+		int size = network.size();
+		CompactNetwork incoming = network.reverse();
+		int[] offsets = incoming.getOffsets();
+		int[] sources = incoming.getTargets();
+
+		// The matrix entry of each node's outgoing edges, or 0 for a sink
+		double[] weights = new double[size];
+		for (int i = 0; i < size; i++) {
+			int degree = network.getOutDegree(i);
+			weights[i] = degree == 0 ? 0 : d*1/degree;
+		}
+
+		// The high and low parts of the current and prior values, initialized to 1 / n
+		double[] hi = new double[size];
+		double[] lo = new double[size];
+		double[] hiP = new double[size];
+		double[] loP = new double[size];
+		for (int i = 0; i < size; i++) hi[i] = (double)1/size;
+
+		// Update the values until convergence
+		while (checkConverge(hi, lo, hiP, loP, variance)) {
+			// Swap the current values into the prior values
+			double[] temp = hiP; hiP = hi; hi = temp;
+			temp = loP; loP = lo; lo = temp;
+
+			// Sum the total value and the value held by the sinks
+			double totalHi = 0, totalLo = 0, sinkHi = 0, sinkLo = 0;
+			for (int i = 0; i < size; i++) {
+				double s = totalHi + hiP[i];
+				totalLo += twoSumError(totalHi, hiP[i], s) + loP[i];
+				totalHi = s;
+				if (weights[i] == 0) {
+					s = sinkHi + hiP[i];
+					sinkLo += twoSumError(sinkHi, hiP[i], s) + loP[i];
+					sinkHi = s;
+				}
+			}
+
+			// The entry shared by every row: (1 - d) / n of the total, and d / n of the sinks
+			double baseHi = (1-d)/size * totalHi;
+			double baseLo = twoProductError((1-d)/size, totalHi, baseHi) + (1-d)/size * totalLo;
+			double p = d/size * sinkHi;
+			double s = baseHi + p;
+			baseLo += twoSumError(baseHi, p, s) + twoProductError(d/size, sinkHi, p) + d/size * sinkLo;
+			baseHi = s;
+
+			// Multiply the incoming edges by the prior values to calculate the future values
+			double newTotalHi = 0, newTotalLo = 0;
+			for (int i = 0; i < size; i++) {
+				double accHi = baseHi, accLo = baseLo;
+				for (int j = offsets[i]; j < offsets[i + 1]; j++) {
+					int k = sources[j];
+					p = weights[k] * hiP[k];
+					s = accHi + p;
+					accLo += twoSumError(accHi, p, s) + twoProductError(weights[k], hiP[k], p) + weights[k] * loP[k];
+					accHi = s;
+				}
+				hi[i] = accHi + accLo;
+				lo[i] = accLo - (hi[i] - accHi);
+				s = newTotalHi + hi[i];
+				newTotalLo += twoSumError(newTotalHi, hi[i], s) + lo[i];
+				newTotalHi = s;
+			}
+
+			// Check for a leak of value in the network and redistribute it back to the network
+			for (int i = 0; i < size; i++) {
+				double q = hi[i] / newTotalHi;
+				// The remainder of the value minus q times the total, divided by the total again
+				p = q * newTotalHi;
+				double r = ((hi[i] - p) - twoProductError(q, newTotalHi, p) + lo[i] - q * newTotalLo) / newTotalHi;
+				hi[i] = q + r;
+				lo[i] = r - (hi[i] - q);
+			}
+		}
+
+		// After convergence normalize the values over the variance
+		double[] result = new double[size];
+		for (int i = 0; i < size; i++) result[i] = Math.ceil((hi[i] + lo[i])/variance)*variance;
+		return result;
+	}
+
+	/*
+	 * This method checks for the convergence of the network by comparing the prior and
+	 * current double-double values and checking if they are less than the variance.
+	 */
+	public static boolean checkConverge(double[] hi, double[] lo, double[] hiP, double[] loP, double variance) {
+		for (int i = 0; i < hi.length; i++) {
+			if (Math.abs((hi[i] - hiP[i]) + (lo[i] - loP[i])) > variance) return true;
+		} return false;
+	}
+
+	/*
+	 * This method returns the rounding error of s = a + b, so that a + b is exactly s plus the error.
+	 */
+	public static double twoSumError(double a, double b, double s) {
+		double bb = s - a;
+		return (a - (s - bb)) + (b - bb);
+	}
+
+	/*
+	 * This method returns the rounding error of p = a * b, so that a * b is exactly p plus the error.
+	 * Each factor is split into two halves of 26 bits, whose products are all exact.
+	 */
+	public static double twoProductError(double a, double b, double p) {
+		double split = 134217729.0;
+		double ta = split * a;
+		double aHi = ta - (ta - a);
+		double aLo = a - aHi;
+		double tb = split * b;
+		double bHi = tb - (tb - b);
+		double bLo = b - bHi;
+		return ((aHi * bHi - p) + aHi * bLo + aLo * bHi) + aLo * bLo;
+	}
+
+}
@@ -0,0 +1,161 @@
+package pageRankAlgorithm;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Scanner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class PageRankJobRunner {
+
+	private ExecutorService io;
+	private ExecutorService cpu;
+	private ResultCache cache;
+
+	/*
+	 * The PageRankJobRunner class runs many pagerank jobs at once. Each job loads a network, solves
+	 * it and writes the results. Loading and writing mostly wait on the disk, so they run on a pool
+	 * of ioThreads threads, while solving runs on a pool of cpuThreads threads so the solves never
+	 * compete for more cores than there are. Both pools are fixed in size, so submitting thousands
+	 * of jobs queues them instead of starting thousands of threads.
+	 */
+	public PageRankJobRunner(int ioThreads, int cpuThreads) {
+		this(ioThreads, cpuThreads, null);
+	}
+
+	/*
+	 * This constructor also takes in a ResultCache, which jobs check before solving and store
+	 * their results in afterwards. A null cache solves every job.
+	 */
+	public PageRankJobRunner(int ioThreads, int cpuThreads, ResultCache cache) {
+		this.io = Executors.newFixedThreadPool(ioThreads);
+		this.cpu = Executors.newFixedThreadPool(cpuThreads);
+		this.cache = cache;
+	}
+
+	/*
+	 * Input: Optionally a cache directory and its size in megabytes as arguments, then any number
+	 * of jobs, one per line: a .csv file, a results file, and optionally the column of the edge
+	 * weights, separated by spaces
+	 * Output: The results of each job written to its results file, and the total runtime
+	 * The following program runs the pagerank jobs concurrently, reading new jobs while the
+	 * earlier ones are still running.
+	 */
+	public static void main(String[] args) throws Exception {
+
+		int cores = Runtime.getRuntime().availableProcessors();
+		ResultCache cache = null;
+		if (args.length > 0) cache = new ResultCache(new File(args[0]), (args.length > 1 ? Long.parseLong(args[1]) : 256) << 20);
+		PageRankJobRunner runner = new PageRankJobRunner(4 * cores, cores, cache);
+		List<CompletableFuture<List<Node>>> jobs = new ArrayList<CompletableFuture<List<Node>>>();
+
+		System.out.println("Input Jobs: ");
+		final long startTime = System.currentTimeMillis();
+		try {
+			// Read in the jobs and submit them without waiting for them to finish
+			Scanner sc = new Scanner(System.in);
+			while (sc.hasNextLine()) {
+				String[] job = sc.nextLine().trim().split(" ");
+				if (job.length >= 2) {
+					final String fileName = job[0];
+					int weightColumn;
+					try {
+						weightColumn = job.length > 2 ? Integer.parseInt(job[2]) : -1;
+					} catch (NumberFormatException ex) {
+						// A job with a bad weight column fails on its own, like a job whose file cannot be read
+						System.out.println(fileName + ": " + ex);
+						continue;
+					}
+					jobs.add(runner.submit(job[0], job[1], weightColumn).whenComplete((network, ex) -> {
+						if (ex != null) System.out.println(fileName + ": " + ex.getCause());
+						else System.out.println(fileName + ": " + network.size() + " nodes");
+					}));
+				}
+			} sc.close();
+
+			// Wait for every job to finish, whether or not it failed
+			for (CompletableFuture<List<Node>> job : jobs) {
+				try {
+					job.join();
+				} catch (CompletionException ex) {
+					continue;
+				}
+			}
+			final long endTime = System.currentTimeMillis();
+			System.out.println(jobs.size() + " Jobs Run Time: " + ((double)endTime - startTime) + " ms");
+		} finally {
+			// The pools' threads would keep the JVM running if main ended without stopping them
+			runner.close();
+		}
+
+	}
+
+	/*
+	 * This method submits a job that loads the network in the given file, runs the iterative
+	 * pagerank algorithm on it, and writes the sorted results to the results file. It returns
+	 * the sorted network once the results are written. If the runner has a cache the file is
+	 * hashed before it loads, and a stored result for the same contents and weight column is
+	 * copied to the results file instead, without building or solving the network.
+	 */
+	public CompletableFuture<List<Node>> submit(String fileName, String resultsFileName, int weightColumn) {
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				if (cache == null) return solve(CompactNetwork.buildNetwork(fileName, weightColumn), resultsFileName, null);
+				// The key uses the damping factor of .85 and the tolerance of calculateVariance
+				String key = ResultCache.key(ResultCache.hashFile(fileName), weightColumn < 0 ? "unweighted" : "weighted" + weightColumn, .85, Math.pow(10, -5));
+				if (!cache.copy(key, new File(resultsFileName))) return solve(CompactNetwork.buildNetwork(fileName, weightColumn), resultsFileName, key);
+				return CompletableFuture.completedFuture(PageRank.sort(toNetwork(PageRank.readValues(resultsFileName))));
+			} catch (Exception ex) {
+				throw new CompletionException(ex);
+			}
+		}, io).thenCompose(job -> job);
+	}
+
+	/*
+	 * This method solves a loaded network on the cpu pool, then writes the sorted results on the
+	 * io pool and stores them in the cache under the key, if there is one.
+	 */
+	private CompletableFuture<List<Node>> solve(CompactNetwork network, String resultsFileName, String key) {
+		return CompletableFuture.supplyAsync(() -> {
+			double[] values = WeightedPageRank.pageRankWeighted(network, PageRank.calculateVariance(network.size()));
+			return PageRank.sort(network.toNetwork(values));
+		}, cpu).thenApplyAsync(sorted -> {
+			try {
+				PageRank.writeValues(sorted, resultsFileName);
+				if (key != null) cache.store(key, new File(resultsFileName));
+				return sorted;
+			} catch (Exception ex) {
+				throw new CompletionException(ex);
+			}
+		}, io);
+	}
+
+	/*
+	 * This method creates a node for each name in a stored result, with its stored value. A
+	 * result holds every node of its network, so the network does not have to be built.
+	 */
+	private static List<Node> toNetwork(Map<String, Double> stored) {
+		List<Node> network = new ArrayList<Node>(stored.size());
+		for (Map.Entry<String, Double> entry : stored.entrySet()) {
+			Node node = new Node(entry.getKey());
+			node.setValue(entry.getValue());
+			network.add(node);
+		} return network;
+	}
+
+	/*
+	 * This method stops the pools once the submitted jobs have finished.
+	 */
+	public void close() throws InterruptedException {
+		io.shutdown();
+		cpu.shutdown();
+		io.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+		cpu.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+	}
+
+}
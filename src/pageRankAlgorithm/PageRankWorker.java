@@ -0,0 +1,305 @@
+package pageRankAlgorithm;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class PageRankWorker {
+
+	// The messages the coordinator sends at the start of each iteration
+	public static final int STEP = 1;
+	public static final int FINISH = 0;
+
+	private int id;
+	private int workers;
+	private int[] blocks;
+	private int size;
+	private double d;
+	private int first;
+	private int[] offsets;
+	private int[] targets;
+	private double[] weights;
+	private double[] scales;
+	private double[] values;
+	private double[] future;
+
+	// The destination of each edge: a local node, or (if negative) a slot in the outgoing buffer
+	private int[] destinations;
+	private double[] outgoing;
+	private int[] outgoingOffsets;
+	private int[][] incoming;
+	private ByteBuffer[] sendBuffers;
+	private ByteBuffer[] receiveBuffers;
+
+	private Socket coordinator;
+	private DataInputStream coordinatorIn;
+	private DataOutputStream coordinatorOut;
+	private DataInputStream[] peerIn;
+	private DataOutputStream[] peerOut;
+	private ExecutorService senders;
+
+	/*
+	 * The PageRankWorker class owns one block of the nodes in a DistributedPageRank run. It holds
+	 * the outgoing edges of its own nodes, and each iteration passes its nodes' values along them.
+	 * The shares for nodes in other blocks are added up per destination node and sent to the
+	 * worker owning them as one message of doubles, in an order both workers agreed on before the
+	 * first iteration, so no node indices are sent while iterating. Messages are sent on separate
+	 * threads while the worker reads its peers' messages, so two workers sending to each other
+	 * never wait on each other.
+	 */
+	public PageRankWorker(String host, int port) throws Exception {
+		this.coordinator = new Socket(host, port);
+		this.coordinator.setTcpNoDelay(true);
+		this.coordinatorIn = new DataInputStream(new BufferedInputStream(coordinator.getInputStream()));
+		this.coordinatorOut = new DataOutputStream(new BufferedOutputStream(coordinator.getOutputStream()));
+	}
+
+	/*
+	 * Input: The host and port of the coordinator
+	 * Output: None; the worker runs until the coordinator finishes
+	 * The following program starts a worker for a DistributedPageRank coordinator.
+	 */
+	public static void main(String[] args) throws Exception {
+
+		new PageRankWorker(args[0], Integer.parseInt(args[1])).run();
+
+	}
+
+	/*
+	 * This method connects to the other workers, receives this worker's block of the network,
+	 * and then runs iterations until the coordinator finishes, sending back the final values.
+	 */
+	public void run() throws Exception {
+		// Listen for the other workers on the same address the coordinator was reached from
+		ServerSocket server = new ServerSocket(0, 0, coordinator.getLocalAddress());
+		try {
+			// A worker that never connects fails this one instead of hanging it
+			server.setSoTimeout(DistributedPageRank.ACCEPT_TIMEOUT);
+			coordinatorOut.writeUTF(server.getInetAddress().getHostAddress());
+			coordinatorOut.writeInt(server.getLocalPort());
+			coordinatorOut.flush();
+			String[] hosts = readSetup();
+			connectPeers(server, hosts);
+		} finally {
+			server.close();
+		}
+		exchangeBoundaries();
+
+		// Report the starting sum of the sinks' values
+		coordinatorOut.writeDouble(sinkSum(future));
+		coordinatorOut.flush();
+		while (coordinatorIn.readByte() == STEP) {
+			double maxChange = step(coordinatorIn.readDouble());
+			coordinatorOut.writeDouble(maxChange);
+			coordinatorOut.writeDouble(sinkSum(future));
+			coordinatorOut.flush();
+		}
+
+		// Send back the future values of this worker's nodes
+		ByteBuffer buffer = ByteBuffer.allocate(8 * future.length);
+		buffer.asDoubleBuffer().put(future);
+		coordinatorOut.write(buffer.array());
+		coordinatorOut.flush();
+		close();
+	}
+
+	/*
+	 * This method reads the worker's id, the blocks of all workers, the addresses of the other
+	 * workers, and the outgoing edges of this worker's nodes.
+	 */
+	private String[] readSetup() throws Exception {
+		id = coordinatorIn.readInt();
+		workers = coordinatorIn.readInt();
+		size = coordinatorIn.readInt();
+		d = coordinatorIn.readDouble();
+		blocks = new int[workers + 1];
+		for (int i = 0; i <= workers; i++) blocks[i] = coordinatorIn.readInt();
+		String[] hosts = new String[workers];
+		for (int i = 0; i < workers; i++) hosts[i] = coordinatorIn.readUTF() + ":" + coordinatorIn.readInt();
+		first = blocks[id];
+		int nodes = blocks[id + 1] - first;
+		offsets = new int[nodes + 1];
+		for (int i = 0; i <= nodes; i++) offsets[i] = coordinatorIn.readInt();
+		targets = new int[offsets[nodes]];
+		for (int j = 0; j < targets.length; j++) targets[j] = coordinatorIn.readInt();
+		if (coordinatorIn.readBoolean()) {
+			weights = new double[targets.length];
+			for (int j = 0; j < weights.length; j++) weights[j] = coordinatorIn.readDouble();
+		}
+
+		// The damping factor over the total weight (or number) of each node's outgoing edges
+		scales = new double[nodes];
+		for (int i = 0; i < nodes; i++) {
+			for (int j = offsets[i]; j < offsets[i + 1]; j++) scales[i] += weights == null ? 1 : weights[j];
+			scales[i] = scales[i] == 0 ? 0 : d/scales[i];
+		}
+		values = new double[nodes];
+		future = new double[nodes];
+		for (int i = 0; i < nodes; i++) future[i] = 1/(double) size;
+		return hosts;
+	}
+
+	/*
+	 * This method connects this worker to every other worker. Each worker connects to the
+	 * workers before it, and accepts connections from the workers after it, which send their
+	 * id first.
+	 */
+	private void connectPeers(ServerSocket server, String[] hosts) throws Exception {
+		Socket[] peers = new Socket[workers];
+		for (int j = 0; j < id; j++) {
+			int split = hosts[j].lastIndexOf(':');
+			peers[j] = new Socket();
+			peers[j].connect(new InetSocketAddress(hosts[j].substring(0, split), Integer.parseInt(hosts[j].substring(split + 1))));
+			new DataOutputStream(peers[j].getOutputStream()).writeInt(id);
+		}
+		for (int j = id + 1; j < workers; j++) {
+			Socket peer = server.accept();
+			peers[new DataInputStream(peer.getInputStream()).readInt()] = peer;
+		}
+		peerIn = new DataInputStream[workers];
+		peerOut = new DataOutputStream[workers];
+		for (int j = 0; j < workers; j++) {
+			if (j == id) continue;
+			peers[j].setTcpNoDelay(true);
+			peerIn[j] = new DataInputStream(new BufferedInputStream(peers[j].getInputStream(), 1 << 16));
+			peerOut[j] = new DataOutputStream(new BufferedOutputStream(peers[j].getOutputStream(), 1 << 16));
+		}
+		senders = Executors.newFixedThreadPool(Math.max(workers - 1, 1));
+	}
+
+	/*
+	 * This method finds the nodes in other blocks that this worker's edges point to, gives each
+	 * one a slot in the outgoing buffer, and tells each worker which of its nodes the slots it
+	 * will receive are for. The slots are sorted by node, so each worker's slots are together.
+	 */
+	private void exchangeBoundaries() throws Exception {
+		int last = blocks[id + 1];
+		int[] remote = new int[targets.length];
+		int count = 0;
+		for (int target : targets) if (target < first || target >= last) remote[count++] = target;
+		Arrays.sort(remote, 0, count);
+		int unique = 0;
+		for (int i = 0; i < count; i++) if (unique == 0 || remote[i] != remote[unique - 1]) remote[unique++] = remote[i];
+		remote = Arrays.copyOf(remote, unique);
+
+		destinations = new int[targets.length];
+		for (int j = 0; j < targets.length; j++) {
+			if (targets[j] >= first && targets[j] < last) destinations[j] = targets[j] - first;
+			else destinations[j] = -1 - Arrays.binarySearch(remote, targets[j]);
+		}
+		outgoing = new double[unique];
+		outgoingOffsets = new int[workers + 1];
+		for (int j = 0; j <= workers; j++) {
+			int slot = Arrays.binarySearch(remote, blocks[j]);
+			outgoingOffsets[j] = slot >= 0 ? slot : -1 - slot;
+		}
+
+		// Send each worker the nodes of its block that this worker will send shares to
+		final int[] nodes = remote;
+		List<Future<?>> sends = new ArrayList<Future<?>>();
+		for (int j = 0; j < workers; j++) {
+			if (j == id) continue;
+			final int peer = j;
+			sends.add(senders.submit(() -> {
+				peerOut[peer].writeInt(outgoingOffsets[peer + 1] - outgoingOffsets[peer]);
+				for (int i = outgoingOffsets[peer]; i < outgoingOffsets[peer + 1]; i++) peerOut[peer].writeInt(nodes[i]);
+				peerOut[peer].flush();
+				return null;
+			}));
+		}
+		incoming = new int[workers][];
+		sendBuffers = new ByteBuffer[workers];
+		receiveBuffers = new ByteBuffer[workers];
+		for (int j = 0; j < workers; j++) {
+			if (j == id) continue;
+			incoming[j] = new int[peerIn[j].readInt()];
+			for (int i = 0; i < incoming[j].length; i++) incoming[j][i] = peerIn[j].readInt() - first;
+			sendBuffers[j] = ByteBuffer.allocate(8 * (outgoingOffsets[j + 1] - outgoingOffsets[j]));
+			receiveBuffers[j] = ByteBuffer.allocate(8 * incoming[j].length);
+		}
+		for (Future<?> send : sends) send.get();
+	}
+
+	/*
+	 * This method runs one iteration: it steps the values, passes them along the edges, sends
+	 * the shares for other blocks and adds in the shares received. It returns the largest change
+	 * in this worker's values.
+	 */
+	private double step(double sinkTotal) throws Exception {
+		double[] temp = values;
+		values = future;
+		future = temp;
+
+		// Every node gets 1 minus the damping factor, and its part of the sinks' value
+		double base = (1-d)/size + d*sinkTotal/size;
+		Arrays.fill(future, base);
+		Arrays.fill(outgoing, 0);
+
+		// Distribute each node's damped value along its outgoing edges
+		for (int i = 0; i < values.length; i++) {
+			double increase = scales[i]*values[i];
+			for (int j = offsets[i]; j < offsets[i + 1]; j++) {
+				double share = weights == null ? increase : increase*weights[j];
+				int destination = destinations[j];
+				if (destination >= 0) future[destination] += share;
+				else outgoing[-1 - destination] += share;
+			}
+		}
+
+		// Send the shares for each other block as one message, while reading the other workers' shares
+		List<Future<?>> sends = new ArrayList<Future<?>>();
+		for (int j = 0; j < workers; j++) {
+			final int peer = j;
+			final int from = outgoingOffsets[j], to = outgoingOffsets[j + 1];
+			if (j == id || from == to) continue;
+			sends.add(senders.submit(() -> {
+				ByteBuffer message = sendBuffers[peer];
+				for (int i = from; i < to; i++) message.putDouble(8 * (i - from), outgoing[i]);
+				peerOut[peer].write(message.array());
+				peerOut[peer].flush();
+				return null;
+			}));
+		}
+		for (int j = 0; j < workers; j++) {
+			if (j == id || incoming[j].length == 0) continue;
+			ByteBuffer message = receiveBuffers[j];
+			peerIn[j].readFully(message.array());
+			for (int i = 0; i < incoming[j].length; i++) future[incoming[j][i]] += message.getDouble(8 * i);
+		}
+		for (Future<?> send : sends) send.get();
+
+		double maxChange = 0;
+		for (int i = 0; i < future.length; i++) maxChange = Math.max(maxChange, Math.abs(values[i] - future[i]));
+		return maxChange;
+	}
+
+	/*
+	 * This method sums the given values of this worker's sinks.
+	 */
+	private double sinkSum(double[] values) {
+		double sum = 0;
+		for (int i = 0; i < values.length; i++) if (scales[i] == 0) sum += values[i];
+		return sum;
+	}
+
+	/*
+	 * This method closes the connections and stops the sending threads.
+	 */
+	private void close() throws Exception {
+		senders.shutdown();
+		for (int j = 0; j < workers; j++) if (j != id) peerOut[j].close();
+		coordinatorOut.close();
+	}
+
+}
@@ -1,9 +1,13 @@
 package pageRankAlgorithm;
 
 import java.io.BufferedReader;
+import java.io.File;
 import java.io.FileReader;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
 import java.util.concurrent.CountDownLatch;
 
@@ -53,6 +57,117 @@ public class PartitionPageRank {
 		return network;
 	}
 	
+	/*
+	 * This method runs the parallelized iterative page rank algorithm on a given file, saving
+	 * a checkpoint to the checkpoint file every interval iterations. If the checkpoint file
+	 * already exists the algorithm resumes from it, and it is deleted once the algorithm
+	 * converges. It also prints out the running time of the algorithm in milliseconds.
+	 */
+	public static List<AtomicNode> runParallelized(String fileName, String checkpointFileName, int interval) throws Exception {
+		// Build the network on which the pagerank algorithm will be run
+		List<AtomicNode> network = buildNetwork(fileName);
+		// Calculate the variance which will determine when the algorithm converges
+		double variance = PageRank.calculateVariance(network.size());
+		
+		// Resume from the checkpoint if there is one
+		Checkpoint checkpoint = new Checkpoint(new File(checkpointFileName), interval);
+		int iteration = 0;
+		if (checkpoint.getFile().exists()) {
+			iteration = Checkpoint.restore(checkpoint.getFile(), network);
+			System.out.println("Resumed from iteration " + iteration);
+		}
+		
+		System.out.println("Parallelized:");
+		final long startTime = System.currentTimeMillis();
+		// Run the pagerank algorithm for the network using the calculated variance
+		network = pageRankParallelized(network, variance, 4, checkpoint, iteration);
+		final long endTime = System.currentTimeMillis();
+		System.out.println("Run Time: " + ((double)endTime - startTime) + " ms");
+		// The run converged, so there is nothing left to resume
+		checkpoint.delete();
+		
+		return network;
+	}
+	
+	/*
+	 * This method runs the parallelized iterative page rank algorithm on a given file, starting
+	 * from the values in a previous result file instead of 1 / n. It prints out the number of
+	 * iterations and the running time of the algorithm in milliseconds.
+	 */
+	public static List<AtomicNode> runWarmStarted(String fileName, String previousFileName) throws Exception {
+		// Build the network on which the pagerank algorithm will be run, and start it from the previous values
+		List<AtomicNode> network = buildNetwork(fileName);
+		initializeValues(network, PageRank.readValues(previousFileName));
+		// Calculate the variance which will determine when the algorithm converges
+		double variance = PageRank.calculateVariance(network.size());
+		
+		System.out.println("Warm Started Parallelized:");
+		final long startTime = System.currentTimeMillis();
+		// Run the pagerank algorithm for the network using the calculated variance
+		int iterations = iterateParallelized(network, variance, 4, null, 0);
+		stepAndNormalizeValues(network, variance);
+		final long endTime = System.currentTimeMillis();
+		System.out.println("Iterations: " + iterations);
+		System.out.println("Run Time: " + ((double)endTime - startTime) + " ms");
+		
+		return network;
+	}
+	
+	/*
+	 * This method runs the deterministic parallelized iterative page rank algorithm on a given
+	 * file. It also prints out the running time of the algorithm in milliseconds.
+	 */
+	public static List<AtomicNode> runDeterministic(String fileName) throws Exception {
+		// Build the network on which the pagerank algorithm will be run
+		List<AtomicNode> network = buildNetwork(fileName);
+		// Calculate the variance which will determine when the algorithm converges
+		double variance = PageRank.calculateVariance(network.size());
+		
+		System.out.println("Deterministic Parallelized:");
+		final long startTime = System.currentTimeMillis();
+		// Run the pagerank algorithm for the network using the calculated variance
+		network = pageRankDeterministic(network, variance, 4);
+		final long endTime = System.currentTimeMillis();
+		System.out.println("Run Time: " + ((double)endTime - startTime) + " ms");
+		
+		return network;
+	}
+	
+	/*
+	 * This method runs the parallelized and deterministic parallelized algorithms on a given file
+	 * with 1 to 4 threads. It prints the run time of each, whether the deterministic values are
+	 * the same to the bit for every number of threads, and the largest difference of each from
+	 * the iterative algorithm. The values are compared before they are normalized, since rounding
+	 * them up to a multiple of the variance would hide differences in their last bits.
+	 */
+	public static void testDeterministic(String fileName) throws Exception {
+		List<Node> iterative = PageRank.runIterative(fileName);
+		double[] first = null;
+		boolean identical = true;
+		for (int threads = 1; threads <= 4; threads++) {
+			List<AtomicNode> network = buildNetwork(fileName);
+			double variance = PageRank.calculateVariance(network.size());
+			long startTime = System.nanoTime();
+			pageRankParallelized(network, variance, threads);
+			double parallelizedTime = (System.nanoTime() - startTime)/1e6;
+			double parallelizedDeviation = PageRank.maxDeviation(new ArrayList<Node>(network), iterative);
+
+			network = buildNetwork(fileName);
+			startTime = System.nanoTime();
+			double[] values = iterateDeterministic(network, variance, threads);
+			double deterministicTime = (System.nanoTime() - startTime)/1e6;
+			for (int i = 0; i < values.length; i++) network.get(i).setAtomicFValue(values[i]);
+			stepAndNormalizeValues(network, variance);
+			double deterministicDeviation = PageRank.maxDeviation(new ArrayList<Node>(network), iterative);
+
+			if (first == null) first = values;
+			else identical &= Arrays.equals(first, values);
+			System.out.printf("Threads: %d, Parallelized: %.1f ms (deviation %s), Deterministic: %.1f ms (deviation %s)%n",
+					threads, parallelizedTime, parallelizedDeviation, deterministicTime, deterministicDeviation);
+		}
+		System.out.println("Deterministic Identical Across Threads: " + identical);
+	}
+	
 	/*
 	 * This method takes in a filename and builds the network that will be used
 	 * in the pagerank algorithm. (NOTE: it is assumed that the file is a .csv
@@ -111,12 +226,60 @@ public class PartitionPageRank {
 		}
 	}
 	
+	/*
+	 * This method initializes the atomic node values from a previous result, matched by name.
+	 * Atomic nodes which were not in the previous result start at 1 divided by the size of
+	 * the network, and the values are then scaled to add up to 1.
+	 */
+	public static void initializeValues(List<AtomicNode> network, Map<String, Double> previous) {
+		double total = 0;
+		for (AtomicNode atomicNode : network) {
+			Double value = previous.get(atomicNode.getName());
+			atomicNode.setAtomicFValue(value == null ? 1/(double) network.size() : value);
+			total += atomicNode.getAtomicFValue();
+		}
+		for (AtomicNode atomicNode : network) {
+			atomicNode.setAtomicFValue(atomicNode.getAtomicFValue()/total);
+		}
+	}
+	
 	/*
 	 * This method runs the actual parallelized pagerank algorithm. It takes in a network,
 	 * the variance to check for convergence, and the number of threads that should be spawned
 	 * to split the workload into.
 	 */
 	public static List<AtomicNode> pageRankParallelized(List<AtomicNode> network, double variance, int threads) {
+		try {
+			return pageRankParallelized(network, variance, threads, null, 0);
+		} catch (Exception ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+	
+	/*
+	 * This method runs the parallelized pagerank algorithm, passing the network to the checkpoint
+	 * after every iteration so it can save the future values when one is due. The iterations are
+	 * counted from the given iteration, which is where a resumed run left off.
+	 */
+	public static List<AtomicNode> pageRankParallelized(List<AtomicNode> network, double variance, int threads,
+			Checkpoint checkpoint, int iteration) throws Exception {
+		
+		// Run the iterations until convergence
+		iterateParallelized(network, variance, threads, checkpoint, iteration);
+		
+		// Set and normalize the final atomic node values
+		stepAndNormalizeValues(network, variance);
+		
+		return network;
+	}
+	
+	/*
+	 * This method runs the iterations of the parallelized pagerank algorithm until convergence,
+	 * leaving the converged values as the atomic future values. It returns the iteration it
+	 * finished on.
+	 */
+	public static int iterateParallelized(List<AtomicNode> network, double variance, int threads,
+			Checkpoint checkpoint, int iteration) throws Exception {
 		
 		// Set the damping factor to .85
 		double damping = .85;
@@ -135,12 +298,12 @@ public class PartitionPageRank {
 		// Continually iterate running the threads on the partitions until convergence
 		while (checkConverge(network, variance)) {
 			startPartitionThreads(network, partitions, damping, threads);
+			iteration++;
+			if (checkpoint != null) checkpoint.update(iteration, network);
 		}
+		if (checkpoint != null) checkpoint.close();
 		
-		// Set and normalize the final atomic node values
-		stepAndNormalizeValues(network, variance);
-		
-		return network;
+		return iteration;
 	}
 	
 	/*
@@ -171,6 +334,117 @@ public class PartitionPageRank {
 		}
 	}
 	
+	/*
+	 * This method runs the parallelized pagerank algorithm so that its results are the same to the
+	 * bit on every run and for every number of threads. The threads of pageRankParallelized add to
+	 * each atomic node's future value in whatever order they get there, and adding doubles in a
+	 * different order rounds differently. Instead, each node pulls its future value from the
+	 * shares of the nodes pointing to it in the order of those nodes, adding 1 minus the damping
+	 * factor when it reaches itself, which is the order PageRank.pageRankIterativeScaled adds them
+	 * in, so the results are also the same as the iterative algorithm's. A partition only writes
+	 * the values and next shares of its own nodes, and the only value combined across partitions
+	 * is the largest change, which does not depend on order. The atomic edges are copied into
+	 * arrays of incoming edges first, so no atomic values are used while iterating.
+	 */
+	public static List<AtomicNode> pageRankDeterministic(List<AtomicNode> network, double variance, int threads) {
+		double[] values = iterateDeterministic(network, variance, threads);
+		// Set and normalize the final atomic node values
+		for (int i = 0; i < values.length; i++) network.get(i).setAtomicFValue(values[i]);
+		stepAndNormalizeValues(network, variance);
+		return network;
+	}
+	
+	/*
+	 * This method runs the iterations of the deterministic parallelized pagerank algorithm until
+	 * convergence, starting from the atomic future values, and returns the converged values
+	 * before they are normalized over the variance.
+	 */
+	public static double[] iterateDeterministic(List<AtomicNode> network, double variance, int threads) {
+		
+		// Set the damping factor to .85
+		double damping = .85;
+		int size = network.size();
+		
+		// The incoming edges of each atomic node, in the order of the nodes they come from
+		Map<AtomicNode, Integer> indices = new HashMap<AtomicNode, Integer>();
+		for (int i = 0; i < size; i++) indices.put(network.get(i), i);
+		int[] degrees = new int[size];
+		int[] offsets = new int[size + 1];
+		for (AtomicNode node : network) {
+			for (AtomicNode e : node.getAtomicEdges()) offsets[indices.get(e) + 1]++;
+		}
+		for (int i = 0; i < size; i++) offsets[i + 1] += offsets[i];
+		int[] sources = new int[offsets[size]];
+		int[] positions = Arrays.copyOf(offsets, size);
+		for (int i = 0; i < size; i++) {
+			degrees[i] = network.get(i).getAtomicEdges().size();
+			for (AtomicNode e : network.get(i).getAtomicEdges()) sources[positions[indices.get(e)]++] = i;
+		}
+		// The first incoming edge of each atomic node that comes from the node itself or a later one
+		int[] splits = new int[size];
+		for (int i = 0; i < size; i++) {
+			splits[i] = offsets[i];
+			while (splits[i] < offsets[i + 1] && sources[splits[i]] < i) splits[i]++;
+		}
+		
+		// Start from the atomic future values, as the parallelized algorithm does, and their shares
+		double[] values = new double[size];
+		double[] shares = new double[size];
+		double[] nextShares = new double[size];
+		boolean converged = true;
+		for (int i = 0; i < size; i++) {
+			AtomicNode node = network.get(i);
+			values[i] = node.getAtomicFValue();
+			shares[i] = damping*(values[i]/degrees[i]);
+			if (Math.abs(node.getValue() - values[i]) > variance) converged = false;
+		}
+		
+		// The partition size given the number of threads
+		int pSize = (int) Math.floor((double)size/threads);
+		DeterministicPartitionThread[] partitions = new DeterministicPartitionThread[threads];
+		double base = (1 - damping) / size;
+		
+		// Continually iterate running the threads on the partitions until convergence
+		while (!converged) {
+			CountDownLatch latch = new CountDownLatch(threads);
+			for (int i = 0; i < threads; i++) {
+				int endPos = i == (threads - 1) ? size : (i + 1) * pSize;
+				partitions[i] = new DeterministicPartitionThread(offsets, sources, splits, degrees, values,
+						shares, nextShares, i * pSize, endPos, latch, damping, base);
+				partitions[i].start();
+			}
+			OffHeapPageRank.awaitLatch(latch);
+			double change = 0;
+			for (int i = 0; i < threads; i++) change = Math.max(change, partitions[i].getChange());
+			converged = change <= variance;
+			double[] temp = shares;
+			shares = nextShares;
+			nextShares = temp;
+		}
+		
+		return values;
+	}
+	
+	/*
+	 * This method sets the future value of each atomic node from start to end to the shares of
+	 * the nodes before it, then 1 minus the damping factor over the size of the network, then the
+	 * shares of the rest, and calculates its next share. It returns the largest change from the
+	 * current values.
+	 */
+	public static double pullValues(int[] offsets, int[] sources, int[] splits, int[] degrees, double[] values,
+			double[] shares, double[] nextShares, int start, int end, double damping, double base) {
+		double change = 0;
+		for (int i = start; i < end; i++) {
+			double future = 0;
+			for (int j = offsets[i]; j < splits[i]; j++) future += shares[sources[j]];
+			future += base;
+			for (int j = splits[i]; j < offsets[i + 1]; j++) future += shares[sources[j]];
+			change = Math.max(change, Math.abs(future - values[i]));
+			values[i] = future;
+			nextShares[i] = damping*(future/degrees[i]);
+		} return change;
+	}
+	
 	/*
 	 * This method steps the future value for each atomic node to the actual value
 	 * and then resets the future value to 0.
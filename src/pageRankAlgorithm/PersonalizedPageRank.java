@@ -0,0 +1,208 @@
+package pageRankAlgorithm;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Scanner;
+
+public class PersonalizedPageRank {
+
+	// The number of seed sets that share each traversal of the edges
+	public static final int BATCH_SIZE = 16;
+
+	/*
+	 * Input: Any number of lines, each with a .csv network file and a seed file separated by a space
+	 * Output: The runtime for the batched personalized pagerank algorithm
+	 * The following program runs the personalized pagerank algorithm for every seed set in the
+	 * seed file, where each line of the seed file is a comma separated list of node names.
+	 */
+	public static void main(String[] args) throws Exception {
+
+		System.out.println("Input Filenames: ");
+		// Read in input file names
+		Scanner sc = new Scanner(System.in);
+		while (sc.hasNextLine()) {
+			// Only valid file names will be accepted, otherwise an exception will be thrown
+			String[] fileNames = sc.nextLine().trim().split(" ");
+			System.out.println("\n" + fileNames[0]);
+			if (fileNames.length == 2) {
+				// Run the pagerank algorithm on the files
+				runPersonalized(fileNames[0], fileNames[1]);
+			}
+		} sc.close();
+
+	}
+
+	/*
+	 * This method runs the personalized page rank algorithm on a given network file for each seed
+	 * set in the seed file. It returns one network per seed set, and also prints out the running
+	 * time of the algorithm in milliseconds.
+	 */
+	public static List<List<Node>> runPersonalized(String fileName, String seedFileName) throws Exception {
+		// Build the network on which the pagerank algorithm will be run
+		CompactNetwork network = CompactNetwork.buildNetwork(fileName);
+		int[][] seeds = readSeeds(network, seedFileName);
+		// Calculate the variance which will determine when the algorithm converges
+		double variance = PageRank.calculateVariance(network.size());
+
+		System.out.println("Personalized (" + seeds.length + " seed sets):");
+		final long startTime = System.currentTimeMillis();
+		// Run the pagerank algorithm for the network using the calculated variance
+		double[][] values = pageRankPersonalized(network, seeds, variance);
+		final long endTime = System.currentTimeMillis();
+		System.out.println("Run Time: " + ((double)endTime - startTime) + " ms");
+
+		List<List<Node>> networks = new ArrayList<List<Node>>();
+		for (double[] v : values) networks.add(network.toNetwork(v));
+		return networks;
+	}
+
+	/*
+	 * This method reads the seed file, where each line is a seed set of comma separated node
+	 * names, and returns the node indices of each seed set. Names not in the network are skipped,
+	 * and a name listed more than once in a seed set is only counted once, so every seed gets the
+	 * same part of the teleport.
+	 */
+	public static int[][] readSeeds(CompactNetwork network, String seedFileName) throws Exception {
+		Map<String, Integer> indices = new HashMap<String, Integer>();
+		for (int i = 0; i < network.size(); i++) indices.put(network.getName(i), i);
+
+		BufferedReader br = new BufferedReader(new FileReader(seedFileName));
+		List<int[]> seeds = new ArrayList<int[]>();
+		String line;
+		while ((line = br.readLine()) != null) {
+			LinkedHashSet<Integer> seedSet = new LinkedHashSet<Integer>();
+			for (String name : line.split(",")) {
+				Integer index = indices.get(name.trim());
+				if (index != null) seedSet.add(index);
+			}
+			if (seedSet.isEmpty()) throw new IllegalArgumentException("No seed nodes found in: " + line);
+			int[] seedArray = new int[seedSet.size()];
+			int i = 0;
+			for (int index : seedSet) seedArray[i++] = index;
+			seeds.add(seedArray);
+		} br.close();
+		return seeds.toArray(new int[seeds.size()][]);
+	}
+
+	/*
+	 * This method runs the personalized pagerank algorithm for every seed set, in batches of
+	 * BATCH_SIZE seed sets that share each traversal of the edges. A batch's values are kept in
+	 * one array, so on a network too large for BATCH_SIZE values per node in an array the batches
+	 * are made smaller. It returns the values of each seed set normalized over the variance.
+	 */
+	public static double[][] pageRankPersonalized(CompactNetwork network, int[][] seeds, double variance) {
+		network.requireDirected("Personalized pagerank");
+		network.requireUnweighted("Personalized pagerank");
+		CompactNetwork incoming = network.reverse();
+		double[][] values = new double[seeds.length][];
+		int batchSize = Math.max(1, Math.min(BATCH_SIZE, (Integer.MAX_VALUE - 8) / Math.max(1, network.size())));
+		for (int start = 0; start < seeds.length; start += batchSize) {
+			int[][] batch = new int[Math.min(batchSize, seeds.length - start)][];
+			System.arraycopy(seeds, start, batch, 0, batch.length);
+			double[][] batchValues = pageRankBatch(network, incoming, batch, variance);
+			System.arraycopy(batchValues, 0, values, start, batch.length);
+		} return values;
+	}
+
+	/*
+	 * This method runs the iterative version of the pagerank algorithm with a damping factor of .85
+	 * for a batch of seed sets at once. Instead of distributing 1 minus the damping factor to every
+	 * node, each seed set's teleport (and its sinks' value) is shared evenly between its seed nodes.
+	 * The values of the k seed sets are interleaved, so node i's value for seed set q is stored at
+	 * i * k + q. Each edge is then read once per iteration for the whole batch, and its k updates
+	 * are to neighboring doubles. It returns the values of each seed set normalized over the variance.
+	 */
+	public static double[][] pageRankBatch(CompactNetwork network, CompactNetwork incoming, int[][] seeds, double variance) {
+
+		// This is the damping factor for the network
+		double d = .85;
+
+		network.requireDirected("Personalized pagerank");
+		network.requireUnweighted("Personalized pagerank");
+		int size = network.size();
+		int k = seeds.length;
+		int[] offsets = incoming.getOffsets();
+		int[] sources = incoming.getTargets();
+		// The interleaved values must fit in an array, which also keeps every index below within an int
+		long length = (long) size * k;
+		if (length > Integer.MAX_VALUE - 8) throw new IllegalArgumentException("Too many values for one batch: " + size + " nodes times " + k + " seed sets");
+
+		double[] values = new double[(int) length];
+		double[] future = new double[(int) length];
+		double[] shares = new double[(int) length];
+		double[] sinkSums = new double[k];
+		// Start each seed set with its value split evenly between its seeds
+		addTeleport(future, seeds, new double[k], 0);
+
+		// Run generate the new values for each node until every seed set converges
+		while (checkConverge(values, future, variance)) {
+			// Swap the future values into the current values
+			double[] temp = values;
+			values = future;
+			future = temp;
+
+			// Calculate each node's shares, and sum the value held by the sinks for each seed set
+			for (int q = 0; q < k; q++) sinkSums[q] = 0;
+			for (int i = 0; i < size; i++) {
+				int degree = network.getOutDegree(i);
+				int base = i * k;
+				if (degree == 0) {
+					for (int q = 0; q < k; q++) {
+						sinkSums[q] += values[base + q];
+						shares[base + q] = 0;
+					}
+				} else {
+					for (int q = 0; q < k; q++) shares[base + q] = values[base + q]/degree;
+				}
+			}
+
+			// Pull the damped shares of the incoming edges for every seed set at once
+			for (int i = 0; i < size; i++) {
+				int base = i * k;
+				for (int q = 0; q < k; q++) future[base + q] = 0;
+				for (int j = offsets[i]; j < offsets[i + 1]; j++) {
+					int source = sources[j] * k;
+					for (int q = 0; q < k; q++) future[base + q] += shares[source + q];
+				}
+				for (int q = 0; q < k; q++) future[base + q] *= d;
+			}
+
+			// Teleport 1 minus the damping factor and the sinks' damped value to the seeds
+			addTeleport(future, seeds, sinkSums, d);
+		}
+
+		// Do one final step and normalize all values over the variance
+		double[][] result = new double[k][size];
+		for (int i = 0; i < size; i++) {
+			for (int q = 0; q < k; q++) result[q][i] = Math.ceil(future[i * k + q]/variance)*variance;
+		} return result;
+	}
+
+	/*
+	 * This method adds 1 minus the damping factor, plus the damping factor times the sinks'
+	 * value, of each seed set evenly to its seed nodes.
+	 */
+	public static void addTeleport(double[] values, int[][] seeds, double[] sinkSums, double d) {
+		int k = seeds.length;
+		for (int q = 0; q < k; q++) {
+			double amount = (1 - d + d*sinkSums[q]) / seeds[q].length;
+			for (int seed : seeds[q]) values[seed * k + q] += amount;
+		}
+	}
+
+	/*
+	 * This method checks for convergence. If every value minus its future value
+	 * is less than the variance, then every seed set has converged.
+	 */
+	public static boolean checkConverge(double[] values, double[] future, double variance) {
+		for (int i = 0; i < values.length; i++) {
+			if (Math.abs(values[i] - future[i]) > variance) return true;
+		} return false;
+	}
+
+}
@@ -0,0 +1,228 @@
+package pageRankAlgorithm;
+
+import java.util.List;
+import java.util.Scanner;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.DoubleAdder;
+
+public class PushPageRank {
+
+	/*
+	 * Input: Any number of filepaths linking to .csv files
+	 * Output: The runtime for the push and parallelized push pagerank algorithms
+	 * The following program runs the push pagerank algorithms on given .csv files.
+	 */
+	public static void main(String[] args) throws Exception {
+
+		System.out.println("Input Filenames: ");
+		// Read in input file names
+		Scanner sc = new Scanner(System.in);
+		while (sc.hasNextLine()) {
+			// Only valid file names will be accepted, otherwise an exception will be thrown
+			String fileName = sc.nextLine().trim();
+			System.out.println("\n" + fileName);
+			if (!fileName.equals("")) {
+				// Run the pagerank algorithms on the files
+				runPush(fileName);
+				runPushParallelized(fileName);
+			}
+		} sc.close();
+
+	}
+
+	/*
+	 * This method runs the push page rank algorithm on a given file.
+	 * It also prints out the running time of the algorithm in milliseconds.
+	 */
+	public static List<Node> runPush(String fileName) throws Exception {
+		// Build the network on which the pagerank algorithm will be run
+		CompactNetwork network = CompactNetwork.buildNetwork(fileName);
+		// Calculate the variance which will determine when the algorithm converges
+		double variance = PageRank.calculateVariance(network.size());
+
+		System.out.println("Push:");
+		final long startTime = System.currentTimeMillis();
+		// Run the pagerank algorithm for the network using the calculated variance
+		double[] values = pageRankPush(network, variance);
+		final long endTime = System.currentTimeMillis();
+		System.out.println("Run Time: " + ((double)endTime - startTime) + " ms");
+
+		return network.toNetwork(values);
+	}
+
+	/*
+	 * This method runs the parallelized push page rank algorithm on a given file.
+	 * It also prints out the running time of the algorithm in milliseconds.
+	 */
+	public static List<Node> runPushParallelized(String fileName) throws Exception {
+		// Build the network on which the pagerank algorithm will be run
+		CompactNetwork network = CompactNetwork.buildNetwork(fileName);
+		// Calculate the variance which will determine when the algorithm converges
+		double variance = PageRank.calculateVariance(network.size());
+
+		System.out.println("Parallelized Push:");
+		final long startTime = System.currentTimeMillis();
+		// Run the pagerank algorithm for the network using the calculated variance
+		double[] values = pageRankPushParallelized(network, variance, 4);
+		final long endTime = System.currentTimeMillis();
+		System.out.println("Run Time: " + ((double)endTime - startTime) + " ms");
+
+		return network.toNetwork(values);
+	}
+
+	/*
+	 * This method runs the push version of the pagerank algorithm with a damping factor of .85.
+	 * Every node starts with a residual of 1 minus the damping factor over n. Pushing a node moves
+	 * its residual into its value and adds the damped residual, split between its outgoing edges,
+	 * to the residuals of the nodes it points to. Only nodes whose residual is above the threshold
+	 * are kept in the work queue, so the work goes where value is still moving. A sink's damped
+	 * residual is saved up and spread over every node whenever the queue runs out. It returns the
+	 * values normalized over the variance.
+	 */
+	public static double[] pageRankPush(CompactNetwork network, double variance) {
+
+		// This is the damping factor for the network
+		double d = .85;
+
+		network.requireDirected("Push pagerank");
+		network.requireUnweighted("Push pagerank");
+		int size = network.size();
+		int[] offsets = network.getOffsets();
+		int[] targets = network.getTargets();
+		// Once every residual is under the threshold, together they can change no value by more than the variance
+		double threshold = variance * (1-d) / size;
+
+		double[] values = new double[size];
+		double[] residuals = new double[size];
+		boolean[] queued = new boolean[size];
+		// A circular work queue, which never holds more than one entry per node
+		int[] queue = new int[size];
+		int head = 0, count = 0;
+		for (int i = 0; i < size; i++) {
+			residuals[i] = (1-d)/size;
+			queued[i] = true;
+			queue[count++] = i;
+		}
+
+		double sinkMass = 0;
+		while (count > 0) {
+			// Push the nodes in the queue until it runs out
+			while (count > 0) {
+				int u = queue[head];
+				head = (head + 1) % size;
+				count--;
+				queued[u] = false;
+				double residual = residuals[u];
+				residuals[u] = 0;
+				values[u] += residual;
+				int degree = offsets[u + 1] - offsets[u];
+				if (degree == 0) {
+					sinkMass += d*residual;
+					continue;
+				}
+				double increase = d*residual/degree;
+				for (int j = offsets[u]; j < offsets[u + 1]; j++) {
+					int v = targets[j];
+					residuals[v] += increase;
+					if (!queued[v] && residuals[v] > threshold) {
+						queued[v] = true;
+						queue[(head + count++) % size] = v;
+					}
+				}
+			}
+
+			// Spread the sinks' mass evenly over every node, and queue the nodes that need it
+			if (sinkMass == 0) break;
+			double increase = sinkMass/size;
+			sinkMass = 0;
+			for (int v = 0; v < size; v++) {
+				residuals[v] += increase;
+				if (residuals[v] > threshold) {
+					queued[v] = true;
+					queue[(head + count++) % size] = v;
+				}
+			}
+		}
+
+		return normalizeValues(values, residuals, variance);
+	}
+
+	/*
+	 * This method runs the parallelized push version of the pagerank algorithm with a damping factor
+	 * of .85. The nodes are pushed in rounds: the frontier of queued nodes is split between the
+	 * threads, and the nodes they push over the threshold become the next round's frontier. It
+	 * returns the values normalized over the variance.
+	 */
+	public static double[] pageRankPushParallelized(CompactNetwork network, double variance, int threads) {
+
+		// Set the damping factor to .85
+		double d = .85;
+
+		network.requireDirected("Parallelized push pagerank");
+		network.requireUnweighted("Parallelized push pagerank");
+		int size = network.size();
+		double threshold = variance * (1-d) / size;
+
+		double[] values = new double[size];
+		AtomicLongArray residuals = new AtomicLongArray(size);
+		AtomicIntegerArray queued = new AtomicIntegerArray(size);
+		DoubleAdder sinkMass = new DoubleAdder();
+		int[] frontier = new int[size];
+		int count = size;
+		for (int i = 0; i < size; i++) {
+			residuals.set(i, Double.doubleToRawLongBits((1-d)/size));
+			queued.set(i, 1);
+			frontier[i] = i;
+		}
+
+		while (count > 0) {
+			// Split the frontier into one partition per thread and push them
+			PushThread[] partitions = new PushThread[threads];
+			final CountDownLatch latch = new CountDownLatch(threads);
+			int pSize = (int) Math.floor((double)count/threads);
+			for (int i = 0; i < threads; i++) {
+				int endPos = i == (threads - 1) ? count : (i + 1) * pSize;
+				partitions[i] = new PushThread(network, frontier, i * pSize, endPos, values, residuals, queued,
+						sinkMass, d, threshold, latch);
+				partitions[i].start();
+			}
+			try {
+				latch.await();
+			} catch (InterruptedException ex) {
+				throw new RuntimeException("Errors Galore!!!");
+			}
+
+			// Gather the next frontier from the threads
+			count = 0;
+			for (PushThread partition : partitions) {
+				System.arraycopy(partition.getNext(), 0, frontier, count, partition.getNextSize());
+				count += partition.getNextSize();
+			}
+
+			// Once the frontier runs out, spread the sinks' mass evenly over every node
+			double mass = sinkMass.sumThenReset();
+			if (count == 0 && mass > 0) {
+				for (int v = 0; v < size; v++) {
+					double residual = Double.longBitsToDouble(residuals.get(v)) + mass/size;
+					residuals.set(v, Double.doubleToRawLongBits(residual));
+					if (residual > threshold && queued.compareAndSet(v, 0, 1)) frontier[count++] = v;
+				}
+			} else if (mass > 0) sinkMass.add(mass);
+		}
+
+		double[] remaining = new double[size];
+		for (int i = 0; i < size; i++) remaining[i] = Double.longBitsToDouble(residuals.get(i));
+		return normalizeValues(values, remaining, variance);
+	}
+
+	/*
+	 * This method adds the remaining residuals to the values and normalizes them by the variance.
+	 */
+	public static double[] normalizeValues(double[] values, double[] residuals, double variance) {
+		for (int i = 0; i < values.length; i++) values[i] = Math.ceil((values[i] + residuals[i])/variance)*variance;
+		return values;
+	}
+
+}
@@ -0,0 +1,110 @@
+package pageRankAlgorithm;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.DoubleAdder;
+
+public class PushThread extends Thread {
+
+	private CompactNetwork network;
+	private int[] frontier;
+	private int start;
+	private int end;
+	private double[] values;
+	private AtomicLongArray residuals;
+	private AtomicIntegerArray queued;
+	private DoubleAdder sinkMass;
+	private double damping;
+	private double threshold;
+	private CountDownLatch latch;
+	private int[] next;
+	private int nextSize;
+
+	/*
+	 * This is a thread that pushes the residuals of the frontier nodes from start up to (but not
+	 * including) end. Residuals are shared between the threads, so they are stored as the bits of
+	 * doubles in an AtomicLongArray. A node is only added to the next frontier by the thread that
+	 * sets its queued flag, so every node is pushed by at most one thread in each round.
+	 */
+	public PushThread(CompactNetwork network, int[] frontier, int start, int end, double[] values,
+			AtomicLongArray residuals, AtomicIntegerArray queued, DoubleAdder sinkMass,
+			double damping, double threshold, CountDownLatch latch) {
+		this.network = network;
+		this.frontier = frontier;
+		this.start = start;
+		this.end = end;
+		this.values = values;
+		this.residuals = residuals;
+		this.queued = queued;
+		this.sinkMass = sinkMass;
+		this.damping = damping;
+		this.threshold = threshold;
+		this.latch = latch;
+		this.next = new int[16];
+		this.nextSize = 0;
+	}
+
+	/*
+	 * Gets the nodes this thread added to the next frontier.
+	 */
+	public int[] getNext() {
+		return this.next;
+	}
+
+	/*
+	 * Gets the number of nodes this thread added to the next frontier.
+	 */
+	public int getNextSize() {
+		return this.nextSize;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Thread#run()
+	 * This method overrides the original thread run() method.
+	 * This method moves each frontier node's residual into its value and pushes the damped
+	 * residual along its outgoing edges, or into the sink mass for a sink. It then counts
+	 * down the CountDownLatch when done.
+	 */
+	@Override
+	public void run() {
+		int[] offsets = network.getOffsets();
+		int[] targets = network.getTargets();
+		double sinks = 0;
+		for (int f = start; f < end; f++) {
+			int u = frontier[f];
+			queued.set(u, 0);
+			double residual = Double.longBitsToDouble(residuals.getAndSet(u, 0));
+			values[u] += residual;
+			int degree = offsets[u + 1] - offsets[u];
+			if (degree == 0) {
+				sinks += damping * residual;
+				continue;
+			}
+			double increase = damping * residual / degree;
+			for (int j = offsets[u]; j < offsets[u + 1]; j++) {
+				int v = targets[j];
+				if (addResidual(v, increase) > threshold && queued.compareAndSet(v, 0, 1)) {
+					if (nextSize == next.length) next = Arrays.copyOf(next, nextSize * 2);
+					next[nextSize++] = v;
+				}
+			}
+		}
+		sinkMass.add(sinks);
+		latch.countDown(); // Count down the latch to signal the termination of the thread
+	}
+
+	/*
+	 * This method atomically adds the increase to the node's residual and returns the new residual.
+	 */
+	private double addResidual(int node, double increase) {
+		while (true) {
+			long current = residuals.get(node);
+			double updated = Double.longBitsToDouble(current) + increase;
+			if (residuals.compareAndSet(node, current, Double.doubleToRawLongBits(updated))) return updated;
+		}
+	}
+
+}
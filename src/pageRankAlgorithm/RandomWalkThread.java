@@ -0,0 +1,67 @@
+package pageRankAlgorithm;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+
+public class RandomWalkThread extends Thread {
+
+	private CompactNetwork network;
+	private int start;
+	private int end;
+	private int walks;
+	private double damping;
+	private SplittableRandom random;
+	private CountDownLatch latch;
+	private long[] visits;
+
+	/*
+	 * This is a thread that starts the given number of random walks from each node from start
+	 * up to (but not including) end. It uses its own random number generator and counts the
+	 * visits to each node in its own array, so the threads never share any state.
+	 */
+	public RandomWalkThread(CompactNetwork network, int start, int end, int walks, double damping,
+			SplittableRandom random, CountDownLatch latch) {
+		this.network = network;
+		this.start = start;
+		this.end = end;
+		this.walks = walks;
+		this.damping = damping;
+		this.random = random;
+		this.latch = latch;
+		this.visits = new long[network.size()];
+	}
+
+	/*
+	 * Gets the number of visits to each node.
+	 */
+	public long[] getVisits() {
+		return this.visits;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Thread#run()
+	 * This method overrides the original thread run() method.
+	 * Each walk visits its current node, and then continues with a probability of the
+	 * damping factor, either along a random outgoing edge or, from a sink, to a random
+	 * node. It then counts down the CountDownLatch when done.
+	 */
+	@Override
+	public void run() {
+		int size = network.size();
+		int[] offsets = network.getOffsets();
+		int[] targets = network.getTargets();
+		for (int node = start; node < end; node++) {
+			for (int w = 0; w < walks; w++) {
+				int current = node;
+				while (true) {
+					visits[current]++;
+					if (random.nextDouble() >= damping) break;
+					int degree = offsets[current + 1] - offsets[current];
+					current = degree == 0 ? random.nextInt(size) : targets[offsets[current] + random.nextInt(degree)];
+				}
+			}
+		} latch.countDown(); // Count down the latch to signal the termination of the thread
+	}
+
+}
@@ -0,0 +1,73 @@
+package pageRankAlgorithm;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class RankedNetwork {
+
+	private CompactNetwork network;
+	private double[] values;
+	private List<Node> ranking;
+	private Map<String, Integer> indices;
+
+	/*
+	 * The RankedNetwork class holds a compact network together with its pagerank values, the
+	 * nodes sorted by rank, and an index from node names to positions. It never changes once
+	 * built, so it can be read by many threads at once.
+	 */
+	public RankedNetwork(CompactNetwork network, double[] values) {
+		this.network = network;
+		this.values = values;
+		this.ranking = Collections.unmodifiableList(PageRank.sort(network.toNetwork(values)));
+		this.indices = new HashMap<String, Integer>();
+		for (int i = 0; i < network.size(); i++) this.indices.put(network.getName(i), i);
+	}
+
+	/*
+	 * This method loads the network in the given file and runs the iterative pagerank algorithm on it.
+	 */
+	public static RankedNetwork solve(String fileName) throws Exception {
+		CompactNetwork network = CompactNetwork.buildNetwork(fileName);
+		double[] values = WeightedPageRank.pageRankWeighted(network, PageRank.calculateVariance(network.size()));
+		return new RankedNetwork(network, values);
+	}
+
+	/*
+	 * Gets the value of the named node, or null if it is not in the network.
+	 */
+	public Double getValue(String name) {
+		Integer index = indices.get(name);
+		return index == null ? null : values[index];
+	}
+
+	/*
+	 * Gets the top k nodes in order of rank.
+	 */
+	public List<Node> getTop(int k) {
+		return new ArrayList<Node>(ranking.subList(0, Math.min(k, ranking.size())));
+	}
+
+	/*
+	 * Gets the compact network.
+	 */
+	public CompactNetwork getNetwork() {
+		return this.network;
+	}
+
+	/*
+	 * This method estimates the heap memory used, in bytes. Each name is counted as a String with
+	 * its characters, each node as a Node in the ranking and an entry in the index, and each edge
+	 * as its target (and weight or count if there is one).
+	 */
+	public long estimateBytes() {
+		long bytes = 0;
+		for (String name : network.getNames()) bytes += 64 + 2L * name.length();
+		bytes += (long) network.size() * (4 + 8 + 40 + 48);
+		bytes += (long) network.getEdgeCount() * (network.getWeights() != null ? 12 : network.getMultiplicities() != null ? 8 : 4);
+		return bytes;
+	}
+
+}
@@ -0,0 +1,355 @@
+package pageRankAlgorithm;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+public class RankingServer {
+
+	// The number of most recent request latencies kept for the percentiles
+	private static final int SAMPLES = 1 << 14;
+
+	private HttpServer server;
+	private ExecutorService pool;
+	private GraphCache cache;
+	private Path root;
+	private long[] latencies;
+	private long requests;
+
+	/*
+	 * The RankingServer class serves pagerank results over HTTP on the given port. Solved networks
+	 * are kept in a GraphCache of the given number of bytes, so repeated queries on a network are
+	 * answered from memory. Requests are handled concurrently by a fixed pool of threads, and the
+	 * latency of each request is recorded for the /stats endpoint. Graphs are named by their path
+	 * relative to the root directory, and a name that leads outside of it is refused, so a client
+	 * can only make the server read the files it is meant to serve. The endpoints are:
+	 *   /rank?graph=file&node=name   the value of a node
+	 *   /top?graph=file&k=10         the k highest ranked nodes, one "name,value" per line
+	 *   /solve?graph=file            load and solve the file again, replacing the cached network
+	 *   /stats                       the cache size and the 50th, 90th and 99th percentile latencies
+	 */
+	public RankingServer(int port, long cacheBytes, int threads, File root) throws Exception {
+		this.cache = new GraphCache(cacheBytes);
+		this.root = root.toPath().toRealPath();
+		this.latencies = new long[SAMPLES];
+		this.requests = 0;
+		this.pool = Executors.newFixedThreadPool(threads);
+		this.server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+		this.server.createContext("/rank", timed(this::rank));
+		this.server.createContext("/top", timed(this::top));
+		this.server.createContext("/solve", timed(this::solve));
+		this.server.createContext("/stats", this::stats);
+		this.server.setExecutor(pool);
+	}
+
+	/*
+	 * Input: The port, optionally the cache size in megabytes, and optionally the directory of the
+	 * graphs, which defaults to the working directory
+	 * Output: None; the server runs until the JVM is stopped
+	 * The following program starts the ranking server on localhost.
+	 */
+	public static void main(String[] args) throws Exception {
+
+		int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+		long cacheBytes = (args.length > 1 ? Long.parseLong(args[1]) : 256) << 20;
+		File root = new File(args.length > 2 ? args[2] : ".");
+		RankingServer server = new RankingServer(port, cacheBytes, Runtime.getRuntime().availableProcessors(), root);
+		server.start();
+		System.out.println("Ranking Server: http://localhost:" + server.getPort() + "/ serving " + server.root);
+
+	}
+
+	/*
+	 * This method tests the server on localhost with three graph files in the given directory. It
+	 * sends eight concurrent requests for the first graph before it is loaded and checks that it
+	 * was loaded once, checks /rank against /top, /solve, /stats, and that names leading outside
+	 * of the directory are refused. It then starts a server whose cache is one byte too small for
+	 * all three graphs, loads the first two, uses the first again and loads the third, and checks
+	 * that the second, least recently used graph was the one evicted.
+	 */
+	public static void testServer(String directory, String first, String second, String third) throws Exception {
+		File root = new File(directory);
+		long firstBytes = RankedNetwork.solve(new File(root, first).getPath()).estimateBytes();
+		long secondBytes = RankedNetwork.solve(new File(root, second).getPath()).estimateBytes();
+		long thirdBytes = RankedNetwork.solve(new File(root, third).getPath()).estimateBytes();
+
+		RankingServer server = new RankingServer(0, Long.MAX_VALUE, 4, root);
+		server.start();
+		try {
+			int port = server.getPort();
+			// Send the requests for the graph all at once, before it is loaded
+			ExecutorService clients = Executors.newFixedThreadPool(8);
+			CountDownLatch ready = new CountDownLatch(1);
+			List<Future<String[]>> responses = new ArrayList<Future<String[]>>();
+			for (int i = 0; i < 8; i++) {
+				responses.add(clients.submit(() -> {
+					ready.await();
+					return request(port, "/top?graph=" + encode(first) + "&k=3");
+				}));
+			}
+			ready.countDown();
+			String top = null;
+			boolean same = true;
+			for (Future<String[]> response : responses) {
+				String[] result = response.get();
+				same &= result[0].equals("200") && (top == null || result[1].equals(top));
+				top = result[1];
+			}
+			clients.shutdown();
+			check("Concurrent Cold Load", server.cache.getLoads() == 1 && same,
+					server.cache.getLoads() + " load(s) for 8 requests, responses " + (same ? "identical" : "differ"));
+
+			String[] best = top.split("\n")[0].split(",");
+			String[] rank = request(port, "/rank?graph=" + encode(first) + "&node=" + encode(best[0]));
+			check("Rank", rank[0].equals("200") && rank[1].trim().equals(top.split("\n")[0]), rank[0] + " " + rank[1].trim());
+			String[] unknown = request(port, "/rank?graph=" + encode(first) + "&node=" + encode("no such node"));
+			check("Unknown Node", unknown[0].equals("404"), unknown[0]);
+			String[] solve = request(port, "/solve?graph=" + encode(first));
+			check("Solve", solve[0].equals("200") && server.cache.getLoads() == 2, solve[0] + " " + solve[1].trim());
+			for (String name : new String[] {"../" + first, new File(root.getAbsoluteFile().getParentFile(), first).getPath()}) {
+				String[] refused = request(port, "/top?graph=" + encode(name));
+				check("Refused " + name, refused[0].equals("400"), refused[0] + " " + refused[1].trim());
+			}
+			String[] stats = request(port, "/stats");
+			check("Stats", stats[0].equals("200") && stats[1].contains("p99"), stats[0]);
+			System.out.print(stats[1]);
+		} finally {
+			server.stop(0);
+		}
+
+		// A cache that fits any two of the graphs but not all three
+		server = new RankingServer(0, firstBytes + secondBytes + thirdBytes - 1, 4, root);
+		server.start();
+		try {
+			int port = server.getPort();
+			request(port, "/top?graph=" + encode(first));
+			request(port, "/top?graph=" + encode(second));
+			request(port, "/top?graph=" + encode(first));
+			request(port, "/top?graph=" + encode(third));
+			long loads = server.cache.getLoads();
+			request(port, "/top?graph=" + encode(first));
+			boolean firstKept = server.cache.getLoads() == loads;
+			request(port, "/top?graph=" + encode(second));
+			boolean secondEvicted = server.cache.getLoads() == loads + 1;
+			check("LRU Eviction", firstKept && secondEvicted, "first " + (firstKept ? "kept" : "reloaded")
+					+ ", second " + (secondEvicted ? "evicted" : "kept") + ", " + server.cache.size() + " cached");
+		} finally {
+			server.stop(0);
+		}
+	}
+
+	/*
+	 * This method prints the result of one of the server checks.
+	 */
+	private static void check(String name, boolean passed, String detail) {
+		System.out.println(name + ": " + (passed ? "OK" : "FAILED") + " (" + detail + ")");
+	}
+
+	/*
+	 * This method sends a GET request to the server on localhost, and returns the status and the body.
+	 */
+	private static String[] request(int port, String path) throws Exception {
+		HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + port + path).openConnection();
+		int status = connection.getResponseCode();
+		InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+		StringBuilder body = new StringBuilder();
+		byte[] buffer = new byte[4096];
+		int read;
+		while ((read = in.read(buffer)) > 0) body.append(new String(buffer, 0, read, "UTF-8"));
+		in.close();
+		return new String[] {String.valueOf(status), body.toString()};
+	}
+
+	/*
+	 * This method encodes a query parameter.
+	 */
+	private static String encode(String value) throws Exception {
+		return URLEncoder.encode(value, "UTF-8");
+	}
+
+	/*
+	 * This method starts serving requests.
+	 */
+	public void start() {
+		server.start();
+	}
+
+	/*
+	 * Gets the port the server is bound to, which is chosen by the system if it was created with port 0.
+	 */
+	public int getPort() {
+		return server.getAddress().getPort();
+	}
+
+	/*
+	 * This method stops the server, waiting up to the given number of seconds for requests to finish.
+	 */
+	public void stop(int delay) {
+		server.stop(delay);
+		pool.shutdown();
+	}
+
+	/*
+	 * This method answers a request for the value of a node.
+	 */
+	private void rank(HttpExchange exchange, Map<String, String> query) throws Exception {
+		String node = query.get("node");
+		if (node == null) {
+			respond(exchange, 400, "Missing node\n");
+			return;
+		}
+		Double value = cache.get(graph(query)).getValue(node);
+		if (value == null) respond(exchange, 404, "Unknown node: " + node + "\n");
+		else respond(exchange, 200, node + "," + value + "\n");
+	}
+
+	/*
+	 * This method answers a request for the top k nodes.
+	 */
+	private void top(HttpExchange exchange, Map<String, String> query) throws Exception {
+		int k = query.containsKey("k") ? Integer.parseInt(query.get("k")) : 10;
+		StringBuilder body = new StringBuilder();
+		for (Node node : cache.get(graph(query)).getTop(k)) body.append(node.getName() + "," + node.getValue() + "\n");
+		respond(exchange, 200, body.toString());
+	}
+
+	/*
+	 * This method answers a request to solve a network again.
+	 */
+	private void solve(HttpExchange exchange, Map<String, String> query) throws Exception {
+		final long startTime = System.currentTimeMillis();
+		RankedNetwork network = cache.reload(graph(query));
+		final long endTime = System.currentTimeMillis();
+		respond(exchange, 200, network.getNetwork().size() + " nodes, " + network.getNetwork().getEdgeCount()
+				+ " edges, " + ((double)endTime - startTime) + " ms\n");
+	}
+
+	/*
+	 * This method answers a request for the cache size and the request latencies.
+	 */
+	private void stats(HttpExchange exchange) throws IOException {
+		long[] samples;
+		long count;
+		synchronized (this) {
+			count = requests;
+			samples = Arrays.copyOf(latencies, (int) Math.min(count, SAMPLES));
+		}
+		Arrays.sort(samples);
+		StringBuilder body = new StringBuilder();
+		body.append("Requests: " + count + "\n");
+		body.append("Cached Graphs: " + cache.size() + "\n");
+		body.append("Cached Bytes: " + cache.getUsed() + "\n");
+		body.append("p50: " + percentile(samples, 50) + " ms\n");
+		body.append("p90: " + percentile(samples, 90) + " ms\n");
+		body.append("p99: " + percentile(samples, 99) + " ms\n");
+		respond(exchange, 200, body.toString());
+	}
+
+	/*
+	 * This method wraps an endpoint so that its query is parsed, its errors become responses, and
+	 * its latency is recorded.
+	 */
+	private HttpHandler timed(Endpoint endpoint) {
+		return exchange -> {
+			final long startTime = System.nanoTime();
+			try {
+				endpoint.handle(exchange, parseQuery(exchange.getRequestURI().getRawQuery()));
+			} catch (IllegalArgumentException ex) {
+				respond(exchange, 400, ex.getMessage() + "\n");
+			} catch (FileNotFoundException ex) {
+				respond(exchange, 404, ex.getMessage() + "\n");
+			} catch (Throwable ex) {
+				respond(exchange, 500, ex + "\n");
+			}
+			record(System.nanoTime() - startTime);
+		};
+	}
+
+	/*
+	 * This method records the latency of a request, overwriting the oldest once the samples are full.
+	 */
+	private synchronized void record(long nanos) {
+		latencies[(int) (requests % SAMPLES)] = nanos;
+		requests++;
+	}
+
+	/*
+	 * This method gets the given percentile of the sorted latencies in milliseconds.
+	 */
+	public static double percentile(long[] sorted, int percent) {
+		if (sorted.length == 0) return 0;
+		int index = (int) Math.ceil(percent / 100.0 * sorted.length) - 1;
+		return sorted[Math.max(index, 0)] / 1e6;
+	}
+
+	/*
+	 * This method gets the graph parameter of a query as a path under the root directory. Names
+	 * that normalize to a path outside the root, such as ones with ../ or absolute paths, are
+	 * refused, and so are links inside the root that lead out of it.
+	 */
+	private String graph(Map<String, String> query) throws IOException {
+		String graph = query.get("graph");
+		if (graph == null) throw new IllegalArgumentException("Missing graph");
+		Path path = root.resolve(graph).normalize();
+		if (!path.startsWith(root) || (Files.exists(path) && !path.toRealPath().startsWith(root))) {
+			throw new IllegalArgumentException("Graph outside of the data directory: " + graph);
+		}
+		return path.toString();
+	}
+
+	/*
+	 * This method parses the parameters of a query string.
+	 */
+	public static Map<String, String> parseQuery(String query) throws Exception {
+		Map<String, String> parameters = new HashMap<String, String>();
+		if (query == null) return parameters;
+		for (String parameter : query.split("&")) {
+			int split = parameter.indexOf('=');
+			if (split < 0) parameters.put(URLDecoder.decode(parameter, "UTF-8"), "");
+			else parameters.put(URLDecoder.decode(parameter.substring(0, split), "UTF-8"),
+					URLDecoder.decode(parameter.substring(split + 1), "UTF-8"));
+		} return parameters;
+	}
+
+	/*
+	 * This method sends a plain text response.
+	 */
+	private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+		byte[] bytes = body.getBytes("UTF-8");
+		exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+		exchange.sendResponseHeaders(status, bytes.length);
+		OutputStream out = exchange.getResponseBody();
+		out.write(bytes);
+		out.close();
+	}
+
+	/*
+	 * An endpoint handles a request with its parsed query.
+	 */
+	private interface Endpoint {
+		void handle(HttpExchange exchange, Map<String, String> query) throws Exception;
+	}
+
+}
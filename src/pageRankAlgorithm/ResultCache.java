@@ -0,0 +1,119 @@
+package pageRankAlgorithm;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Comparator;
+
+public class ResultCache {
+
+	private File directory;
+	private long maxBytes;
+
+	/*
+	 * The ResultCache class keeps result files in a directory, named by a key made from a hash of
+	 * the network file's contents and the parameters of the run. Running again on an identical
+	 * file, even under another name, finds the stored result instead of solving the network. Each
+	 * lookup marks the entry as used, and once the directory holds more than maxBytes the least
+	 * recently used entries are deleted.
+	 */
+	public ResultCache(File directory, long maxBytes) {
+		this.directory = directory;
+		this.maxBytes = maxBytes;
+		directory.mkdirs();
+	}
+
+	/*
+	 * This method creates the digest used to hash network files, so it can be updated while
+	 * the file is being loaded.
+	 */
+	public static MessageDigest newDigest() throws Exception {
+		return MessageDigest.getInstance("SHA-256");
+	}
+
+	/*
+	 * This method hashes the contents of a file by streaming it through the digest.
+	 */
+	public static byte[] hashFile(String fileName) throws Exception {
+		MessageDigest digest = newDigest();
+		InputStream in = new DigestInputStream(new FileInputStream(fileName), digest);
+		byte[] buffer = new byte[1 << 16];
+		try {
+			while (in.read(buffer) != -1) continue;
+		} finally {
+			in.close();
+		}
+		return digest.digest();
+	}
+
+	/*
+	 * This method makes the key for a file's hash, the name of the kind of result, and the damping
+	 * factor and tolerance it was solved with. The tolerance is relative to 1 / n, as in
+	 * PageRank.calculateVariance, so the same parameters give the same key for any network.
+	 */
+	public static String key(byte[] hash, String kind, double d, double tolerance) {
+		StringBuilder sb = new StringBuilder();
+		for (byte b : hash) sb.append(String.format("%02x", b));
+		sb.append("-" + kind + "-" + Long.toHexString(Double.doubleToLongBits(d)));
+		sb.append("-" + Long.toHexString(Double.doubleToLongBits(tolerance)));
+		return sb.toString();
+	}
+
+	/*
+	 * This method returns the stored result file for the key, or null if there is none. Another
+	 * thread's store can evict the file as soon as this returns, so a caller that reads it should
+	 * use copy instead.
+	 */
+	public synchronized File lookup(String key) {
+		File file = new File(directory, key + ".csv");
+		if (!file.isFile()) return null;
+		file.setLastModified(System.currentTimeMillis());
+		return file;
+	}
+
+	/*
+	 * This method copies the stored result for the key to the result file and returns true, or
+	 * returns false if there is none. The copy is made while holding the lock that store takes
+	 * to evict, so the entry cannot be deleted halfway through.
+	 */
+	public synchronized boolean copy(String key, File result) throws Exception {
+		File file = lookup(key);
+		if (file == null) return false;
+		Files.copy(file.toPath(), result.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		return true;
+	}
+
+	/*
+	 * This method stores a copy of the result file under the key, then evicts the least recently
+	 * used entries until the directory is within its size. The copy is written to a temporary
+	 * file first and moved into place, so a lookup never sees a partly written entry.
+	 */
+	public synchronized void store(String key, File result) throws Exception {
+		File temp = File.createTempFile(key, ".tmp", directory);
+		Files.copy(result.toPath(), temp.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		Files.move(temp.toPath(), new File(directory, key + ".csv").toPath(),
+				StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		evict();
+	}
+
+	/*
+	 * This method deletes the least recently used entries until the directory is within its size.
+	 */
+	private void evict() {
+		File[] entries = directory.listFiles((dir, name) -> name.endsWith(".csv"));
+		if (entries == null) return;
+		long total = 0;
+		for (File entry : entries) total += entry.length();
+		Arrays.sort(entries, Comparator.comparingLong(File::lastModified));
+		for (int i = 0; i < entries.length && total > maxBytes; i++) {
+			long bytes = entries[i].length();
+			if (entries[i].delete()) total -= bytes;
+		}
+	}
+
+}
@@ -0,0 +1,135 @@
+package pageRankAlgorithm;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class StreamingNetwork {
+
+	// Each partition holds the edges into 2^20 nodes, so its future values take 8 MB
+	public static final int PARTITION_BITS = 20;
+
+	private String[] names;
+	private int[] degrees;
+	private File[] partitions;
+	private long edgeCount;
+
+	/*
+	 * The StreamingNetwork class keeps only the node names and the number of outgoing edges of
+	 * each node in memory. The edges themselves are written to binary partition files on disk,
+	 * as pairs of from and to ints, with partition p holding every edge into the nodes from
+	 * p * 2^20 up to (p + 1) * 2^20. Reading a partition sequentially only updates one block
+	 * of future values, so the edges can be streamed from disk every iteration.
+	 */
+	public StreamingNetwork(String[] names, int[] degrees, File[] partitions, long edgeCount) {
+		this.names = names;
+		this.degrees = degrees;
+		this.partitions = partitions;
+		this.edgeCount = edgeCount;
+	}
+
+	/*
+	 * This method takes in a filename and a directory, and writes the edges of the .csv file
+	 * into partition files in the directory in a single pass over the file.
+	 */
+	public static StreamingNetwork buildNetwork(String fileName, File directory) throws Exception {
+		// A BufferedReader to read in the .csv file
+		BufferedReader br = new BufferedReader(new FileReader(fileName), 1 << 20);
+
+		String line;
+		Map<String, Integer> indices = new HashMap<String, Integer>();
+		List<String> names = new ArrayList<String>();
+		List<DataOutputStream> writers = new ArrayList<DataOutputStream>();
+		List<File> partitions = new ArrayList<File>();
+		int[] degrees = new int[16];
+		long edges = 0;
+
+		// For each line in the .csv file, write an edge from the first node to the second
+		while ((line = br.readLine()) != null) {
+			String[] lineItems = line.split(",");
+			int from = CompactNetwork.indexOf(lineItems[0], indices, names);
+			int to = CompactNetwork.indexOf(lineItems[2], indices, names);
+			if (names.size() > degrees.length) degrees = Arrays.copyOf(degrees, degrees.length * 2);
+			degrees[from]++;
+			// Open the partition files up to the to node's partition
+			int partition = to >>> PARTITION_BITS;
+			while (writers.size() <= partition) {
+				File file = new File(directory, "partition" + writers.size() + ".bin");
+				file.deleteOnExit();
+				partitions.add(file);
+				writers.add(new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16)));
+			}
+			writers.get(partition).writeInt(from);
+			writers.get(partition).writeInt(to);
+			edges++;
+		} br.close();
+		for (DataOutputStream writer : writers) writer.close();
+
+		return new StreamingNetwork(names.toArray(new String[names.size()]), Arrays.copyOf(degrees, names.size()),
+				partitions.toArray(new File[partitions.size()]), edges);
+	}
+
+	/*
+	 * This method deletes the partition files.
+	 */
+	public void delete() {
+		for (File partition : this.partitions) partition.delete();
+	}
+
+	/*
+	 * This method creates a list of nodes with the given values, so that the results
+	 * can be sorted and written in the same way as the other pagerank algorithms.
+	 */
+	public List<Node> toNetwork(double[] values) {
+		List<Node> network = new ArrayList<Node>(this.names.length);
+		for (int i = 0; i < this.names.length; i++) {
+			Node node = new Node(this.names[i]);
+			node.setValue(values[i]);
+			network.add(node);
+		} return network;
+	}
+
+	/*
+	 * Gets the number of nodes.
+	 */
+	public int size() {
+		return this.names.length;
+	}
+
+	/*
+	 * Gets the number of edges.
+	 */
+	public long getEdgeCount() {
+		return this.edgeCount;
+	}
+
+	/*
+	 * Gets the names of the nodes.
+	 */
+	public String[] getNames() {
+		return this.names;
+	}
+
+	/*
+	 * Gets the number of outgoing edges of each node.
+	 */
+	public int[] getDegrees() {
+		return this.degrees;
+	}
+
+	/*
+	 * Gets the partition files.
+	 */
+	public File[] getPartitions() {
+		return this.partitions;
+	}
+
+}
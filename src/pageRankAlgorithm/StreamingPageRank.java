@@ -0,0 +1,133 @@
+package pageRankAlgorithm;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Scanner;
+
+public class StreamingPageRank {
+
+	// The size of each sequential read from a partition file
+	public static final int READ_SIZE = 1 << 23;
+
+	/*
+	 * Input: Any number of filepaths linking to .csv files
+	 * Output: The runtime for the streaming pagerank algorithm
+	 * The following program runs the out-of-core streaming pagerank algorithm on given .csv files.
+	 */
+	public static void main(String[] args) throws Exception {
+
+		System.out.println("Input Filenames: ");
+		// Read in input file names
+		Scanner sc = new Scanner(System.in);
+		while (sc.hasNextLine()) {
+			// Only valid file names will be accepted, otherwise an exception will be thrown
+			String fileName = sc.nextLine().trim();
+			System.out.println("\n" + fileName);
+			if (!fileName.equals("")) {
+				// Run the pagerank algorithm on the files
+				runStreaming(fileName);
+			}
+		} sc.close();
+
+	}
+
+	/*
+	 * This method runs the streaming page rank algorithm on a given file, writing the edge
+	 * partitions to a temporary directory. It also prints out the running time of the
+	 * algorithm in milliseconds.
+	 */
+	public static List<Node> runStreaming(String fileName) throws Exception {
+		// Build the network on which the pagerank algorithm will be run
+		File directory = Files.createTempDirectory("pagerank").toFile();
+		directory.deleteOnExit();
+		StreamingNetwork network = StreamingNetwork.buildNetwork(fileName, directory);
+		// Calculate the variance which will determine when the algorithm converges
+		double variance = PageRank.calculateVariance(network.size());
+
+		System.out.println("Streaming:");
+		final long startTime = System.currentTimeMillis();
+		// Run the pagerank algorithm for the network using the calculated variance
+		double[] values = pageRankStreaming(network, variance);
+		final long endTime = System.currentTimeMillis();
+		System.out.println("Run Time: " + ((double)endTime - startTime) + " ms");
+
+		network.delete();
+		directory.delete();
+		return network.toNetwork(values);
+	}
+
+	/*
+	 * This method runs the iterative version of the pagerank algorithm with a damping factor
+	 * of .85, keeping only the value vectors in memory. Every iteration streams each partition
+	 * file from disk in large sequential reads and adds the share of each edge's from node to
+	 * its to node. It returns the values normalized over the variance.
+	 */
+	public static double[] pageRankStreaming(StreamingNetwork network, double variance) throws Exception {
+
+		// This is the damping factor for the network
+		double d = .85;
+
+		int size = network.size();
+		int[] degrees = network.getDegrees();
+		double[] values = new double[size];
+		double[] future = new double[size];
+		double[] shares = new double[size];
+		for (int i = 0; i < size; i++) future[i] = 1/(double) size;
+		ByteBuffer buffer = ByteBuffer.allocateDirect(READ_SIZE);
+
+		// Run generate the new values for each node until the largest change is within the variance
+		double change = Double.MAX_VALUE;
+		while (change > variance) {
+			// Swap the future values into the current values
+			double[] temp = values;
+			values = future;
+			future = temp;
+
+			// Calculate each node's share, and sum the value held by the sinks
+			double sinkSum = 0;
+			for (int i = 0; i < size; i++) {
+				if (degrees[i] == 0) {
+					sinkSum += values[i];
+					shares[i] = 0;
+				} else shares[i] = values[i]/degrees[i];
+				future[i] = 0;
+			}
+
+			// Stream the edges, adding the share of the from node to the to node
+			for (File partition : network.getPartitions()) streamPartition(partition, buffer, shares, future);
+
+			// Every node gets 1 minus the damping factor, and its part of the sinks' value
+			double base = (1-d)/size + d*sinkSum/size;
+			change = 0;
+			for (int i = 0; i < size; i++) {
+				future[i] = base + d*future[i];
+				change = Math.max(change, Math.abs(future[i] - values[i]));
+			}
+		}
+
+		// Do one final step and normalize all values over the variance
+		for (int i = 0; i < size; i++) future[i] = Math.ceil(future[i]/variance)*variance;
+		return future;
+	}
+
+	/*
+	 * This method reads a partition file through the given buffer and adds the share
+	 * of every edge's from node to the future value of its to node.
+	 */
+	public static void streamPartition(File partition, ByteBuffer buffer, double[] shares, double[] future) throws Exception {
+		FileChannel channel = FileChannel.open(partition.toPath(), StandardOpenOption.READ);
+		buffer.clear();
+		while (channel.read(buffer) != -1) {
+			buffer.flip();
+			while (buffer.remaining() >= 8) {
+				int from = buffer.getInt();
+				future[buffer.getInt()] += shares[from];
+			} buffer.compact();
+		} channel.close();
+	}
+
+}
@@ -0,0 +1,185 @@
+package pageRankAlgorithm;
+
+import java.util.List;
+import java.util.Scanner;
+
+public class WeightedPageRank {
+
+	/*
+	 * Input: Any number of filepaths linking to .csv files
+	 * Output: The runtime for the weighted pagerank algorithm
+	 * The following program runs the weighted iterative pagerank algorithm on given .csv
+	 * files, weighting each edge by the node2Value field of its line.
+	 */
+	public static void main(String[] args) throws Exception {
+
+		System.out.println("Input Filenames: ");
+		// Read in input file names
+		Scanner sc = new Scanner(System.in);
+		while (sc.hasNextLine()) {
+			// Only valid file names will be accepted, otherwise an exception will be thrown
+			String fileName = sc.nextLine().trim();
+			System.out.println("\n" + fileName);
+			if (!fileName.equals("")) {
+				// Run the pagerank algorithm on the files
+				runWeighted(fileName, 3);
+			}
+		} sc.close();
+
+	}
+
+	/*
+	 * This method runs the weighted iterative page rank algorithm on a given file, taking the
+	 * edge weights from the given column (3 for node2Value, or -1 for none).
+	 * It also prints out the running time of the algorithm in milliseconds.
+	 */
+	public static List<Node> runWeighted(String fileName, int weightColumn) throws Exception {
+		return runWeighted(fileName, weightColumn, false);
+	}
+
+	/*
+	 * This method runs the weighted iterative page rank algorithm on a given file, where each
+	 * line is an undirected edge if undirected is true.
+	 */
+	public static List<Node> runWeighted(String fileName, int weightColumn, boolean undirected) throws Exception {
+		// Build the network on which the pagerank algorithm will be run
+		CompactNetwork network = CompactNetwork.buildNetwork(fileName, weightColumn, undirected);
+		// Calculate the variance which will determine when the algorithm converges
+		double variance = PageRank.calculateVariance(network.size());
+
+		System.out.println("Weighted:");
+		final long startTime = System.currentTimeMillis();
+		// Run the pagerank algorithm for the network using the calculated variance
+		double[] values = pageRankWeighted(network, variance);
+		final long endTime = System.currentTimeMillis();
+		System.out.println("Run Time: " + ((double)endTime - startTime) + " ms");
+
+		return network.toNetwork(values);
+	}
+
+	/*
+	 * This method runs the weighted iterative page rank algorithm on a given file, collapsing its
+	 * repeated edges as it loads. If keepMultiplicity is true the results are the same as for the
+	 * repeated edges, otherwise each repeated edge only counts once. It prints out the number of
+	 * edges left after collapsing, and the running time of the algorithm in milliseconds.
+	 */
+	public static List<Node> runCollapsed(String fileName, int weightColumn, boolean keepMultiplicity) throws Exception {
+		// Build the network on which the pagerank algorithm will be run with its edges collapsed
+		CompactNetwork network = CompactNetwork.buildNetwork(fileName, weightColumn, false,
+				keepMultiplicity ? CompactNetwork.COUNT_REPEATS : CompactNetwork.DROP_REPEATS);
+		System.out.println("Edges: " + network.getEdgeCount());
+		// Calculate the variance which will determine when the algorithm converges
+		double variance = PageRank.calculateVariance(network.size());
+
+		System.out.println("Collapsed:");
+		final long startTime = System.currentTimeMillis();
+		// Run the pagerank algorithm for the network using the calculated variance
+		double[] values = pageRankWeighted(network, variance);
+		final long endTime = System.currentTimeMillis();
+		System.out.println("Run Time: " + ((double)endTime - startTime) + " ms");
+
+		return network.toNetwork(values);
+	}
+
+	/*
+	 * This method runs the iterative version of the pagerank algorithm with a damping factor of .85
+	 * on a compact network. In a weighted network each node passes its value along its outgoing
+	 * edges in proportion to their weights, and a node whose edges weigh nothing is treated as a
+	 * sink. An edge with repeats counted passes as many shares as it has repeats. An unweighted
+	 * network never reads the weights, and passes an even share along each edge exactly like
+	 * pageRankIterativeScaled. An undirected network follows each stored edge in both
+	 * directions. It returns the values normalized over the variance.
+	 */
+	public static double[] pageRankWeighted(CompactNetwork network, double variance) {
+
+		// This is the damping factor for the network
+		double d = .85;
+
+		int size = network.size();
+		int[] offsets = network.getOffsets();
+		int[] targets = network.getTargets();
+		double[] weights = network.getWeights();
+		int[] multiplicities = network.getMultiplicities();
+		boolean undirected = network.isUndirected();
+
+		// The damping factor over the total weight (or number) of each node's outgoing edges
+		double[] scales = new double[size];
+		for (int i = 0; i < size; i++) {
+			for (int j = offsets[i]; j < offsets[i + 1]; j++) {
+				double weight = weights != null ? weights[j] : multiplicities != null ? multiplicities[j] : 1;
+				scales[i] += weight;
+				if (undirected && targets[j] != i) scales[targets[j]] += weight;
+			}
+		}
+		for (int i = 0; i < size; i++) scales[i] = scales[i] == 0 ? 0 : d/scales[i];
+
+		double[] values = new double[size];
+		double[] future = new double[size];
+		for (int i = 0; i < size; i++) future[i] = 1/(double) size;
+
+		// Run generate the new values for each node until convergence
+		while (checkConverge(values, future, variance)) {
+			// Swap the future values into the current values and sum the sinks' values
+			double[] temp = values;
+			values = future;
+			future = temp;
+			double sinkSum = 0;
+			for (int i = 0; i < size; i++) if (scales[i] == 0) sinkSum += values[i];
+
+			// Every node gets 1 minus the damping factor, and its part of the sinks' value
+			double base = (1-d)/size + d*sinkSum/size;
+			for (int i = 0; i < size; i++) future[i] = base;
+
+			// Distribute each node's damped value along its outgoing edges
+			if (undirected) distributeUndirected(offsets, targets, weights, multiplicities, scales, values, future);
+			else if (multiplicities != null) {
+				for (int i = 0; i < size; i++) {
+					double increase = scales[i]*values[i];
+					for (int j = offsets[i]; j < offsets[i + 1]; j++) future[targets[j]] += increase*multiplicities[j];
+				}
+			} else if (weights == null) {
+				for (int i = 0; i < size; i++) {
+					double increase = scales[i]*values[i];
+					for (int j = offsets[i]; j < offsets[i + 1]; j++) future[targets[j]] += increase;
+				}
+			} else {
+				for (int i = 0; i < size; i++) {
+					double increase = scales[i]*values[i];
+					for (int j = offsets[i]; j < offsets[i + 1]; j++) future[targets[j]] += increase*weights[j];
+				}
+			}
+		}
+
+		// Do one final step and normalize all values over the variance
+		for (int i = 0; i < size; i++) future[i] = Math.ceil(future[i]/variance)*variance;
+		return future;
+	}
+
+	/*
+	 * This method distributes the damped values along the edges of an undirected network,
+	 * following each stored edge both ways (and a self loop once), weighted by its weight or count.
+	 */
+	public static void distributeUndirected(int[] offsets, int[] targets, double[] weights, int[] multiplicities,
+			double[] scales, double[] values, double[] future) {
+		for (int i = 0; i < values.length; i++) {
+			double increase = scales[i]*values[i];
+			for (int j = offsets[i]; j < offsets[i + 1]; j++) {
+				int t = targets[j];
+				double weight = weights != null ? weights[j] : multiplicities != null ? multiplicities[j] : 1;
+				future[t] += increase*weight;
+				if (t != i) future[i] += scales[t]*values[t]*weight;
+			}
+		}
+	}
+
+	/*
+	 * This method checks for convergence. If every value minus its future value
+	 * is less than the variance, then the network has converged.
+	 */
+	public static boolean checkConverge(double[] values, double[] future, double variance) {
+		for (int i = 0; i < values.length; i++) {
+			if (Math.abs(values[i] - future[i]) > variance) return true;
+		} return false;
+	}
+
+}